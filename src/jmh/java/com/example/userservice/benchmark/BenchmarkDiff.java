@@ -0,0 +1,68 @@
+package com.example.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, typically one per commit, and prints the change in score and in
+ * allocated bytes per operation for every benchmark present in both.
+ *
+ * <pre>java BenchmarkDiff baseline.json current.json</pre>
+ */
+public final class BenchmarkDiff {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final String ROW_FORMAT = "%-70s %14s %14s %9s %12s %12s%n";
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(Path.of(args[0]));
+        Map<String, JsonNode> current = read(Path.of(args[1]));
+
+        System.out.printf(ROW_FORMAT, "Benchmark", "Baseline", "Current", "Change", "B/op before", "B/op after");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+
+            System.out.printf(ROW_FORMAT, entry.getKey(),
+                    String.format("%.3f %s", beforeScore, unit),
+                    String.format("%.3f %s", afterScore, unit),
+                    String.format("%+.1f%%", (afterScore - beforeScore) * 100 / beforeScore),
+                    allocation(before), allocation(after));
+        }
+    }
+
+    private static Map<String, JsonNode> read(Path path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(path.toFile())) {
+            StringBuilder name = new StringBuilder(result.path("benchmark").asText()
+                    .replaceFirst("^.*\\.benchmark\\.", ""));
+            result.path("params").fields().forEachRemaining(param ->
+                    name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(name.toString(), result);
+        }
+        return results;
+    }
+
+    private static String allocation(JsonNode result) {
+        JsonNode metric = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+        return metric.isMissingNode() ? "-" : String.format("%.0f", metric.path("score").asDouble());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.exception.ErrorResponse;
+import com.example.userservice.exception.ErrorResponseWriter;
+import com.example.userservice.exception.UserNotFoundException;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.userservice.commons.Constants.USER_NOT_FOUND_ID;
+
+/**
+ * The body of a 404 for {@code GET /api/users/{id}}, from creating the exception to the encoded response
+ * buffer: a stack-capturing exception serialized as an {@link ErrorResponse} by the Jackson encoder, as
+ * before, against a stackless {@link UserNotFoundException} written by the {@link ErrorResponseWriter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ErrorResponseBenchmark {
+
+    private static final Long ID = 42L;
+    private static final String PATH = "/api/users/42";
+    private static final ResolvableType ERROR_RESPONSE_TYPE = ResolvableType.forClass(ErrorResponse.class);
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(Jackson2ObjectMapperBuilder.json().build());
+    private final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter();
+
+    @Benchmark
+    public int jacksonNotFound() {
+        RuntimeException exception = new StackTraceNotFoundException(USER_NOT_FOUND_ID + ID);
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), exception.getMessage(), PATH);
+        DataBuffer body = encoder.encodeValue(errorResponse, bufferFactory, ERROR_RESPONSE_TYPE,
+                MediaType.APPLICATION_JSON, Collections.emptyMap());
+        return release(body);
+    }
+
+    @Benchmark
+    public int writerNotFound() {
+        UserNotFoundException exception = new UserNotFoundException(USER_NOT_FOUND_ID, ID);
+        return release(errorResponseWriter.encode(bufferFactory, exception, PATH));
+    }
+
+    private static int release(DataBuffer body) {
+        int length = body.readableByteCount();
+        DataBufferUtils.release(body);
+        return length;
+    }
+
+    /**
+     * What {@link UserNotFoundException} used to be: a plain runtime exception that fills in its stack trace.
+     */
+    private static final class StackTraceNotFoundException extends RuntimeException {
+
+        StackTraceNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
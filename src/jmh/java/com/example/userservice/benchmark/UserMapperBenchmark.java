@@ -0,0 +1,42 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserRequestDTO;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.entity.UserEntity;
+import com.example.userservice.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserMapperBenchmark {
+
+    private static final String ENCODED_PASSWORD = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2bUOCZq8i5p8x6K5Q6KvZ1e";
+
+    private final UserMapper userMapper = new UserMapper();
+    private final UserRequestDTO userRequestDTO = new UserRequestDTO("John Doe", "john.doe@example.com", "password123");
+    private final UserEntity userEntity = new UserEntity(1L, "John Doe", "john.doe@example.com", ENCODED_PASSWORD);
+
+    @Benchmark
+    public UserEntity toEntity() {
+        return userMapper.toEntity(userRequestDTO, ENCODED_PASSWORD);
+    }
+
+    @Benchmark
+    public UserResponseDTO toResponseDto() {
+        return userMapper.toResponseDto(userEntity);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.dto.UserRequestDTO;
+import com.example.userservice.validation.UserValidator;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserValidator#validate(UserRequestDTO)} as the service calls it, for a valid request and for one
+ * that fails every rule, against the previous validator that matched the email with {@code String.matches}
+ * and collected errors in a fresh {@link BeanPropertyBindingResult} per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserValidatorBenchmark {
+
+    private final UserValidator userValidator = new UserValidator(3, 255, 255, 8);
+    private final UserRequestDTO validRequest = new UserRequestDTO("John Doe", "john.doe@example.com", "password123");
+    private final UserRequestDTO invalidRequest = new UserRequestDTO("Jo", "not-an-email", "short");
+
+    @Benchmark
+    public List<FieldError> validateValidRequest() {
+        return userValidator.validate(validRequest);
+    }
+
+    @Benchmark
+    public List<FieldError> validateInvalidRequest() {
+        return userValidator.validate(invalidRequest);
+    }
+
+    @Benchmark
+    public Errors regexValidateValidRequest() {
+        return RegexUserValidator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Errors regexValidateInvalidRequest() {
+        return RegexUserValidator.validate(invalidRequest);
+    }
+
+    /**
+     * The validator as it was before the precompiled field rules.
+     */
+    private static final class RegexUserValidator {
+
+        static Errors validate(UserRequestDTO user) {
+            Errors errors = new BeanPropertyBindingResult(user, "userRequestDTO");
+            if (StringUtils.isBlank(user.getName())) {
+                errors.rejectValue("name", "user.name.empty", "Name is required and cannot be empty or blank.");
+            } else if (user.getName().length() < 3) {
+                errors.rejectValue("name", "user.name.short", String.format("Name must be at least %d characters long.", 3));
+            }
+            if (StringUtils.isBlank(user.getEmail())) {
+                errors.rejectValue("email", "user.email.empty", "Email is required and cannot be empty or blank.");
+            } else if (!user.getEmail().matches("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")) {
+                errors.rejectValue("email", "user.email.invalid", "Email is not valid.");
+            }
+            if (StringUtils.isBlank(user.getPassword())) {
+                errors.rejectValue("password", "user.password.empty", "Password is required and cannot be empty or blank.");
+            } else if (user.getPassword().length() < 8) {
+                errors.rejectValue("password", "user.password.short", String.format("Password must be at least %d characters long.", 8));
+            }
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The endpoints a load test can exercise, named as they appear in {@code --mix}.
+ */
+enum Endpoint {
+
+    REGISTER("register"),
+    LOGIN("login"),
+    GET_BY_ID("getById"),
+    GET_ALL("getAll");
+
+    private final String mixName;
+
+    Endpoint(String mixName) {
+        this.mixName = mixName;
+    }
+
+    String mixName() {
+        return mixName;
+    }
+
+    static Endpoint fromName(String name) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.mixName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + name));
+    }
+}
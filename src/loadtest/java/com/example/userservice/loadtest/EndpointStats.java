@@ -0,0 +1,48 @@
+package com.example.userservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and response status counts of one endpoint. Latencies are recorded in nanoseconds
+ * from the intended send time, so a slow server cannot hide queueing delay from the results.
+ */
+final class EndpointStats {
+
+    private static final int TIMEOUT_STATUS = -1;
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(latencyNanos);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status == TIMEOUT_STATUS || status >= 400) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        record(latencyNanos, TIMEOUT_STATUS);
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
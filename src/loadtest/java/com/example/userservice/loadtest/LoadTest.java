@@ -0,0 +1,274 @@
+package com.example.userservice.loadtest;
+
+import com.example.userservice.UserServiceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-model load generator: requests are sent at a fixed arrival rate whether or not earlier ones have
+ * completed, spread over the endpoints by the configured mix. Unless {@code --base-url} is given, the
+ * service is booted in-process on the {@code h2} profile with an in-memory database and a random port.
+ * Writes p50/p99/p999 latencies and throughput per endpoint to a JSON report.
+ *
+ * <pre>mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rate=500 --duration=60s"</pre>
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "password123";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SETUP_CONCURRENCY = 16;
+    private static final int SETUP_RETRIES = 600;
+    private static final Duration SETUP_RETRY_DELAY = Duration.ofMillis(100);
+
+    private final LoadTestOptions options;
+    private final WebClient webClient;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong registrations = new AtomicLong();
+
+    private List<Long> userIds;
+    private String token;
+
+    private LoadTest(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.webClient = WebClient.builder().baseUrl(baseUrl).build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = options.baseUrl() == null ? startService() : null;
+        try {
+            String baseUrl = context == null
+                    ? options.baseUrl()
+                    : "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            new LoadTest(options, baseUrl).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startService() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+
+        // Defaults for the variables application.properties expects; real environment variables still win.
+        Map<String, Object> defaults = Map.of(
+                "EXP_TIME", "3600000",
+                "SECRET_KEY", Base64.getEncoder().encodeToString(secret),
+                "EUREKA_CLIENT_SERVICE_URL_DEFAULTZONE", "http://localhost:8761/eureka");
+        return new SpringApplicationBuilder(UserServiceApplication.class)
+                .properties(defaults)
+                // Every login comes from one address for a handful of seed users, so the throttle is off.
+                .run("--spring.profiles.active=h2", "--server.port=0", "--eureka.client.enabled=false",
+                        "--login.throttle.enabled=false", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+    }
+
+    private void run() throws IOException {
+        setUp();
+
+        System.out.printf("Warming up for %s at %d req/s%n", options.warmup(), options.rate());
+        drive(options.warmup());
+
+        System.out.printf("Measuring for %s at %d req/s%n", options.duration(), options.rate());
+        long start = System.nanoTime();
+        Map<Endpoint, EndpointStats> stats = drive(options.duration());
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> report = report(stats, elapsedSeconds);
+        Files.createDirectories(options.output().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.output().toFile(), report);
+        print(stats, elapsedSeconds);
+        System.out.println("Report written to " + options.output().toAbsolutePath());
+    }
+
+    /**
+     * Registers the seed users, collects their ids and logs in once for a bearer token.
+     */
+    private void setUp() {
+        Flux.range(0, options.users())
+                .flatMap(this::registerSeed, SETUP_CONCURRENCY)
+                .blockLast();
+        registrations.set(options.users());
+
+        String emailPrefix = "load-" + runId + "-";
+        userIds = webClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(JsonNode.class)
+                .filter(user -> user.path("email").asText().startsWith(emailPrefix))
+                .map(user -> user.path("id").asLong())
+                .collectList()
+                .block();
+        token = webClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", seedEmail(0), "password", PASSWORD))
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
+        System.out.printf("Registered %d users%n", userIds.size());
+    }
+
+    private Map<Endpoint, EndpointStats> drive(Duration duration) {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        options.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long requests = duration.toNanos() / periodNanos;
+        long start = System.nanoTime();
+
+        // Arrivals are never throttled by responses, so latency is measured from when each request was
+        // due rather than when it was actually sent.
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(requests)
+                .flatMap(i -> {
+                    long intendedStart = start + (i + 1) * periodNanos;
+                    Endpoint endpoint = pickEndpoint();
+                    EndpointStats endpointStats = stats.get(endpoint);
+                    return call(endpoint)
+                            .timeout(REQUEST_TIMEOUT)
+                            .doOnNext(status -> endpointStats.record(System.nanoTime() - intendedStart, status))
+                            .onErrorResume(e -> {
+                                endpointStats.recordFailure(System.nanoTime() - intendedStart);
+                                return Mono.empty();
+                            });
+                }, Integer.MAX_VALUE)
+                .blockLast();
+        return stats;
+    }
+
+    private Endpoint pickEndpoint() {
+        int totalWeight = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Endpoint, Integer> entry : options.mix().entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private Mono<Integer> call(Endpoint endpoint) {
+        return switch (endpoint) {
+            case REGISTER -> register();
+            case LOGIN -> exchange(webClient.post().uri("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("email", seedEmail(randomSeedIndex()), "password", PASSWORD)));
+            case GET_BY_ID -> exchange(webClient.get()
+                    .uri("/api/users/{id}", userIds.get(randomSeedIndex() % userIds.size()))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+            case GET_ALL -> exchange(webClient.get().uri("/api/users")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        };
+    }
+
+    /**
+     * Registers seed user {@code n}, retrying while the service sheds the request with 503.
+     */
+    private Mono<Integer> registerSeed(long n) {
+        return Mono.defer(() -> register(n))
+                .filter(status -> status != HttpStatus.SERVICE_UNAVAILABLE.value())
+                .repeatWhenEmpty(SETUP_RETRIES, attempts -> attempts.delayElements(SETUP_RETRY_DELAY));
+    }
+
+    private Mono<Integer> register() {
+        return register(registrations.getAndIncrement());
+    }
+
+    private Mono<Integer> register(long n) {
+        return exchange(webClient.post().uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "Load User " + n, "email", seedEmail(n), "password", PASSWORD)));
+    }
+
+    private static Mono<Integer> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    private String seedEmail(long n) {
+        return "load-" + runId + "-" + n + "@example.com";
+    }
+
+    private int randomSeedIndex() {
+        return ThreadLocalRandom.current().nextInt(options.users());
+    }
+
+    private Map<String, Object> report(Map<Endpoint, EndpointStats> stats, double elapsedSeconds) {
+        Histogram overall = new Histogram(3);
+        long errors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            overall.add(endpointStats.latencies());
+            errors += endpointStats.errors();
+
+            Map<String, Object> endpoint = summary(endpointStats.latencies(), endpointStats.errors(), elapsedSeconds);
+            endpoint.put("statuses", endpointStats.statuses());
+            endpoints.put(entry.getKey().mixName(), endpoint);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate", options.rate());
+        report.put("durationSeconds", elapsedSeconds);
+        report.put("users", options.users());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((endpoint, weight) -> mix.put(endpoint.mixName(), weight));
+        report.put("mix", mix);
+        report.put("overall", summary(overall, errors, elapsedSeconds));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static Map<String, Object> summary(Histogram latencies, long errors, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencies.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughput", latencies.getTotalCount() / elapsedSeconds);
+        summary.put("p50Millis", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p99Millis", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999Millis", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("maxMillis", millis(latencies.getMaxValue()));
+        return summary;
+    }
+
+    private static void print(Map<Endpoint, EndpointStats> stats, double elapsedSeconds) {
+        System.out.printf("%-10s %9s %7s %10s %10s %10s %10s%n", "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms");
+        stats.forEach((endpoint, endpointStats) -> {
+            Histogram latencies = endpointStats.latencies();
+            System.out.printf("%-10s %9d %7d %10.1f %10.2f %10.2f %10.2f%n", endpoint.mixName(),
+                    latencies.getTotalCount(), endpointStats.errors(), latencies.getTotalCount() / elapsedSeconds,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)));
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
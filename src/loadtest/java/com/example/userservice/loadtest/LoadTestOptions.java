@@ -0,0 +1,63 @@
+package com.example.userservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options of {@link LoadTest}, given as {@code --name=value}.
+ *
+ * @param rate     arrivals per second, independent of how fast responses come back
+ * @param duration length of the measured phase
+ * @param warmup   length of the unmeasured phase run at the same rate beforehand
+ * @param users    users registered before the run, used by login and lookups
+ * @param mix      relative weight of each endpoint
+ * @param output   where the JSON report is written
+ * @param baseUrl  an already running instance to target instead of booting one
+ */
+record LoadTestOptions(int rate, Duration duration, Duration warmup, int users, Map<Endpoint, Integer> mix,
+                       Path output, String baseUrl) {
+
+    private static final String DEFAULT_MIX = "register=1,login=1,getById=6,getAll=2";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("users", "100")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(values.getOrDefault("output", "target/loadtest-result.json")),
+                values.get("base-url"));
+        if (options.rate() < 1 || options.users() < 1) {
+            throw new IllegalArgumentException("rate and users must be positive");
+        }
+        return options;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
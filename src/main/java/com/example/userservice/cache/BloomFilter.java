@@ -0,0 +1,105 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.commons.Hashing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter over strings, backed by an {@link AtomicLongArray} of bit words. The k bit
+ * positions come from one 64-bit hash split by double hashing, so a lookup hashes the key once.
+ * Answers have no false negatives; the false-positive probability is estimated from the fraction of
+ * bits set, which this class tracks as it sets them.
+ */
+final class BloomFilter {
+
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final LongAdder bitsSet = new LongAdder();
+    private final LongAdder insertions = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        this.words = new AtomicLongArray(Math.toIntExact((bitCount + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Sizes a filter for {@code expectedEntries} keys at {@code falsePositiveRate}:
+     * m = -n ln p / (ln 2)^2 bits and k = (m / n) ln 2 hash functions.
+     */
+    static BloomFilter create(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashFunctions = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(Math.max(64, bits), hashFunctions);
+    }
+
+    /**
+     * Adds {@code key}. Only keys that set at least one new bit count as insertions, so adding a key
+     * again does not inflate {@link #insertions()}.
+     */
+    void put(String key) {
+        long hash1 = Hashing.hash64(key);
+        long hash2 = Hashing.mix64(hash1 + GOLDEN_RATIO);
+        long combined = hash1;
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            changed |= setBit((combined & Long.MAX_VALUE) % bitCount);
+            combined += hash2;
+        }
+        if (changed) {
+            insertions.increment();
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash1 = Hashing.hash64(key);
+        long hash2 = Hashing.mix64(hash1 + GOLDEN_RATIO);
+        long combined = hash1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    long insertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * The probability that a key never added is reported as present: (bits set / bit count)^k.
+     */
+    double falsePositiveProbability() {
+        return Math.pow((double) bitsSet.sum() / bitCount, hashFunctions);
+    }
+
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+        bitsSet.increment();
+        return true;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.commons.EmailNormalizer;
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bloom filter of every registered normalized email, so lookups for emails that were never registered
+ * can be answered without a query. Writes on this instance are added as they happen. Every
+ * {@code sync-interval} the filter reads the emails written since a version it knows it holds everything
+ * up to, which picks up registrations and email changes on other instances. Every {@code rebuild-interval},
+ * or once deletions reach a tenth of the entries, it is rebuilt from a full scan, since bits for deleted
+ * users and replaced emails cannot be cleared.
+ *
+ * <p>Email versions are drawn before the writing statement commits, so a read can see a version while a
+ * lower one is still uncommitted. Each read therefore starts from the highest version seen by a read at
+ * least {@code commit-grace} before the last complete one started, on the assumption that no single-row write
+ * takes longer than that to commit. Until such a version is known, which takes a second full scan after
+ * startup, every email is reported as possibly present.
+ */
+@Slf4j
+@Component
+public class EmailExistenceFilter implements SmartLifecycle {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Duration syncInterval;
+    private final Duration rebuildInterval;
+    private final Duration commitGrace;
+    private final LongSupplier ticker;
+
+    private final LongAdder absent = new LongAdder();
+    private final LongAdder possiblyPresent = new LongAdder();
+    private final LongAdder removedSinceRebuild = new LongAdder();
+    private final Timer rebuildTimer;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+    // Highest version seen by each read with the time it finished, oldest first; only touched by refresh.
+    private final Deque<Watermark> watermarks = new ArrayDeque<>();
+    private volatile long lastSeenVersion;
+    private volatile long completeUpToVersion = -1;
+    private volatile long lastRebuildNanos;
+    private volatile Disposable refreshes;
+
+    @Autowired
+    public EmailExistenceFilter(UserRepository userRepository, MeterRegistry meterRegistry,
+                                @Value("${email.filter.enabled}") boolean enabled,
+                                @Value("${email.filter.expected-entries}") long expectedEntries,
+                                @Value("${email.filter.false-positive-rate}") double falsePositiveRate,
+                                @Value("${email.filter.sync-interval}") Duration syncInterval,
+                                @Value("${email.filter.rebuild-interval}") Duration rebuildInterval,
+                                @Value("${email.filter.commit-grace}") Duration commitGrace) {
+        this(userRepository, meterRegistry, enabled, expectedEntries, falsePositiveRate, syncInterval, rebuildInterval,
+                commitGrace, System::nanoTime);
+    }
+
+    EmailExistenceFilter(UserRepository userRepository, MeterRegistry meterRegistry, boolean enabled, long expectedEntries,
+                         double falsePositiveRate, Duration syncInterval, Duration rebuildInterval, Duration commitGrace,
+                         LongSupplier ticker) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncInterval = syncInterval;
+        this.rebuildInterval = rebuildInterval;
+        this.commitGrace = commitGrace;
+        this.ticker = ticker;
+
+        FunctionCounter.builder("email.filter.checks", absent, LongAdder::sum)
+                .description("Email lookups answered without a query")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        FunctionCounter.builder("email.filter.checks", possiblyPresent, LongAdder::sum)
+                .description("Email lookups passed on to the database")
+                .tag("result", "maybe")
+                .register(meterRegistry);
+        Gauge.builder("email.filter.bits", this, filter -> filter.current == null ? 0 : filter.current.bitCount())
+                .register(meterRegistry);
+        Gauge.builder("email.filter.entries", this, filter -> filter.current == null ? 0 : filter.current.insertions())
+                .register(meterRegistry);
+        Gauge.builder("email.filter.false.positive.probability", this,
+                        filter -> filter.current == null ? 1 : filter.current.falsePositiveProbability())
+                .description("Estimated from the fraction of bits set")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("email.filter.rebuild")
+                .description("Time to rebuild the filter from a full scan of users")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns {@code false} only when no user has {@code email}, in any casing.
+     */
+    public boolean mightContain(String email) {
+        BloomFilter filter = current;
+        if (filter == null || completeUpToVersion < 0 || filter.mightContain(EmailNormalizer.normalize(email))) {
+            possiblyPresent.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    /**
+     * Records an email this instance has just written, so it is visible before the next sync.
+     */
+    public void add(String email) {
+        String normalizedEmail = EmailNormalizer.normalize(email);
+        // The write has committed, so a rebuild that is not visible here yet scans late enough to read
+        // the row itself. Reading building before current means a rebuild finishing in between is seen
+        // as the new current filter.
+        BloomFilter next = building;
+        BloomFilter filter = current;
+        if (next != null) {
+            next.put(normalizedEmail);
+        }
+        if (filter != null && filter != next) {
+            filter.put(normalizedEmail);
+        }
+    }
+
+    /**
+     * Records users deleted or emails replaced, which stay in the filter until it is rebuilt.
+     */
+    public void recordRemovals(long count) {
+        removedSinceRebuild.add(count);
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            refreshes = Flux.interval(Duration.ZERO, syncInterval)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> refresh()
+                            .onErrorResume(e -> {
+                                log.warn("Email filter refresh failed", e);
+                                return Mono.empty();
+                            }), 0)
+                    .subscribe();
+        }
+    }
+
+    @Override
+    public void stop() {
+        Disposable disposable = refreshes;
+        if (disposable != null) {
+            disposable.dispose();
+            refreshes = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return refreshes != null;
+    }
+
+    Mono<Void> refresh() {
+        BloomFilter filter = current;
+        long now = ticker.getAsLong();
+        if (filter == null
+                || now - lastRebuildNanos >= rebuildInterval.toNanos()
+                || removedSinceRebuild.sum() * 10 >= Math.max(1, filter.insertions())) {
+            return rebuild();
+        }
+        if (completeUpToVersion < 0) {
+            // Emails still committing during the first scan are only certain to be read by a full scan that
+            // starts a commit grace later; until then new versions are read to keep up.
+            Watermark oldest = watermarks.peekFirst();
+            return oldest != null && now - oldest.nanos() >= commitGrace.toNanos()
+                    ? rebuild()
+                    : sync(filter, lastSeenVersion, now, false);
+        }
+        return sync(filter, completeUpToVersion, now, true);
+    }
+
+    private Mono<Void> sync(BloomFilter filter, long afterVersion, long start, boolean complete) {
+        return userRepository.findEmailKeysChangedAfter(afterVersion)
+                .reduce(lastSeenVersion, (maxVersion, key) -> {
+                    filter.put(key.emailNormalized());
+                    return Math.max(maxVersion, key.version());
+                })
+                .doOnNext(maxVersion -> recordRead(start, maxVersion, complete))
+                .then();
+    }
+
+    /**
+     * Builds a new filter from a full scan, sized for twice the current entries so it keeps its
+     * false-positive rate as users grow, then swaps it in.
+     */
+    Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            BloomFilter previous = current;
+            long entries = previous == null ? 0 : previous.insertions();
+            BloomFilter next = BloomFilter.create(Math.max(expectedEntries, entries * 2), falsePositiveRate);
+            long removals = removedSinceRebuild.sum();
+            long start = ticker.getAsLong();
+            building = next;
+            return userRepository.findEmailKeys()
+                    .reduce(0L, (maxVersion, key) -> {
+                        next.put(key.emailNormalized());
+                        return Math.max(maxVersion, key.version());
+                    })
+                    .doOnNext(maxVersion -> {
+                        current = next;
+                        recordRead(start, maxVersion, true);
+                        lastRebuildNanos = ticker.getAsLong();
+                        removedSinceRebuild.add(-removals);
+                        rebuildTimer.record(Duration.ofNanos(lastRebuildNanos - start));
+                        log.info("Email filter rebuilt with {} entries in {} ms", next.insertions(),
+                                Duration.ofNanos(lastRebuildNanos - start).toMillis());
+                    })
+                    .doFinally(signal -> building = null)
+                    .then();
+        });
+    }
+
+    /**
+     * Every version up to one seen by a read that finished at least a commit grace before a complete read
+     * started, meaning a full scan or a read from a version already known to be complete, was drawn before
+     * that read finished, had committed by the time the complete read started and so is in the filter.
+     */
+    private void recordRead(long start, long maxVersion, boolean complete) {
+        lastSeenVersion = Math.max(lastSeenVersion, maxVersion);
+        watermarks.addLast(new Watermark(ticker.getAsLong(), lastSeenVersion));
+        if (!complete) {
+            return;
+        }
+        long completeUpTo = completeUpToVersion;
+        while (!watermarks.isEmpty() && start - watermarks.peekFirst().nanos() >= commitGrace.toNanos()) {
+            completeUpTo = Math.max(completeUpTo, watermarks.pollFirst().version());
+        }
+        completeUpToVersion = completeUpTo;
+    }
+
+    private record Watermark(long nanos, long version) {
+    }
+}
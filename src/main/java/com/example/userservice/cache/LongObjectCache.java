@@ -0,0 +1,203 @@
+package com.example.userservice.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, expiring map from primitive {@code long} keys to values. Entries live in lock-striped
+ * open-addressing tables, so lookups neither box the key nor allocate a node per entry.
+ * When a segment is full, a clock hand sweeps the table and evicts the next occupied slot.
+ * The {@code ttl} is in the units of the {@code ticker}: nanoseconds with {@code System::nanoTime},
+ * milliseconds with {@code System::currentTimeMillis}.
+ */
+final class LongObjectCache<V> {
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+    private final long ttl;
+    private final LongSupplier ticker;
+    private final Consumer<V> removalListener;
+    private final LongAdder evictions = new LongAdder();
+
+    LongObjectCache(int maxSize, long ttl, int concurrency, LongSupplier ticker, Consumer<V> removalListener) {
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, maxSize)));
+        int segmentMaxSize = Math.max(1, (maxSize + segmentCount - 1) / segmentCount);
+        this.segments = newSegments(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(this, segmentMaxSize);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.ttl = ttl;
+        this.ticker = ticker;
+        this.removalListener = removalListener;
+    }
+
+    V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, (int) hash, ticker.getAsLong());
+    }
+
+    void put(long key, V value) {
+        long hash = hash(key);
+        segmentFor(hash).put(key, (int) hash, value, ticker.getAsLong() + ttl);
+    }
+
+    V remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).remove(key, (int) hash);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Segment<V>[] newSegments(int count) {
+        return (Segment<V>[]) new Segment<?>[count];
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> 40) & segmentMask];
+    }
+
+    private static long hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Segment<V> {
+
+        private final LongObjectCache<V> owner;
+        private final int maxSize;
+        private final int mask;
+        private final long[] keys;
+        private final long[] expiresAt;
+        private final Object[] values;
+        private int size;
+        private int clockHand;
+
+        Segment(LongObjectCache<V> owner, int maxSize) {
+            int capacity = Integer.highestOneBit(Math.max(2, maxSize * 2 - 1)) << 1;
+            this.owner = owner;
+            this.maxSize = maxSize;
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.expiresAt = new long[capacity];
+            this.values = new Object[capacity];
+        }
+
+        synchronized V get(long key, int hash, long now) {
+            int index = indexOf(key, hash);
+            if (index < 0) {
+                return null;
+            }
+            if (expiresAt[index] - now <= 0) {
+                evict(index);
+                return null;
+            }
+            return value(index);
+        }
+
+        synchronized void put(long key, int hash, V value, long expiry) {
+            int index = indexOf(key, hash);
+            if (index >= 0) {
+                V previous = value(index);
+                values[index] = value;
+                expiresAt[index] = expiry;
+                if (previous != value) {
+                    owner.removalListener.accept(previous);
+                }
+                return;
+            }
+            if (size >= maxSize) {
+                evictNext();
+            }
+            int slot = hash & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            expiresAt[slot] = expiry;
+            size++;
+        }
+
+        synchronized V remove(long key, int hash) {
+            int index = indexOf(key, hash);
+            if (index < 0) {
+                return null;
+            }
+            V removed = value(index);
+            delete(index);
+            return removed;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int indexOf(long key, int hash) {
+            int slot = hash & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void evictNext() {
+            while (values[clockHand] == null) {
+                clockHand = (clockHand + 1) & mask;
+            }
+            evict(clockHand);
+            clockHand = (clockHand + 1) & mask;
+        }
+
+        private void evict(int index) {
+            V evicted = value(index);
+            delete(index);
+            owner.evictions.increment();
+            owner.removalListener.accept(evicted);
+        }
+
+        /**
+         * Backward-shift deletion: pulls later entries of the same probe run into the hole so that
+         * lookups never need tombstones.
+         */
+        private void delete(int index) {
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (values[next] != null) {
+                int home = (int) hash(keys[next]) & mask;
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    expiresAt[hole] = expiresAt[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[hole] = null;
+            size--;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V value(int index) {
+            return (V) values[index];
+        }
+    }
+}
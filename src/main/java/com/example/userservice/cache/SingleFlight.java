@@ -0,0 +1,53 @@
+package com.example.userservice.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent loads of the same key: while a load is in flight, later callers subscribe to
+ * the same shared {@link Mono} instead of starting their own. The entry is dropped as soon as the load
+ * terminates or every subscriber has cancelled, so results are never served from here once complete.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            boolean[] leader = new boolean[1];
+            Mono<V> flight = inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return newFlight(k, loader);
+            });
+            (leader[0] ? executed : coalesced).increment();
+            return flight;
+        });
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private Mono<V> newFlight(K key, Supplier<Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> flight = Mono.defer(loader)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(flight);
+        return flight;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.commons.EmailNormalizer;
+import com.example.userservice.commons.Hashing;
+import com.example.userservice.dto.UserResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process read-through cache for users, keyed by id with a secondary index on the normalized email.
+ * Entries are immutable response DTOs, so they are safely shared between callers and never hold
+ * password hashes.
+ *
+ * <p>A load that read a row before a concurrent write committed must not cache it after the write has
+ * invalidated the id. Every invalidation bumps a generation, so a load takes the generation before its
+ * query and only caches the result if no invalidation has happened since. Loads by id use a generation
+ * per stripe of ids; loads that do not know the id up front use one shared by every id.
+ */
+@Component
+public class UserCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+    private static final int SHARED_GENERATION = GENERATION_STRIPES;
+
+    private final LongObjectCache<UserResponseDTO> usersById;
+    private final ConcurrentHashMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    // One generation per stripe of ids, then the one shared by every id.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES + 1);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${user.cache.max-size}") int maxSize,
+                     @Value("${user.cache.ttl}") Duration ttl) {
+        this(meterRegistry, maxSize, ttl, System::nanoTime);
+    }
+
+    UserCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, LongSupplier ticker) {
+        this.usersById = new LongObjectCache<>(maxSize, ttl.toNanos(), Runtime.getRuntime().availableProcessors() * 4,
+                ticker, this::unindex);
+
+        FunctionCounter.builder("user.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.evictions", usersById, LongObjectCache::evictionCount)
+                .description("Entries removed because of size or TTL limits")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.size", usersById, LongObjectCache::size)
+                .register(meterRegistry);
+    }
+
+    public UserResponseDTO getById(Long id) {
+        return record(usersById.get(id));
+    }
+
+    public UserResponseDTO getByEmail(String email) {
+        String normalizedEmail = EmailNormalizer.normalize(email);
+        Long id = idsByEmail.get(normalizedEmail);
+        if (id == null) {
+            return record(null);
+        }
+        UserResponseDTO user = usersById.get(id);
+        if (user != null && !normalizedEmail.equals(EmailNormalizer.normalize(user.getEmail()))) {
+            idsByEmail.remove(normalizedEmail, id);
+            user = null;
+        }
+        return record(user);
+    }
+
+    public void put(UserResponseDTO user) {
+        usersById.put(user.getId(), user);
+        idsByEmail.put(EmailNormalizer.normalize(user.getEmail()), user.getId());
+    }
+
+    /**
+     * Caches {@code user} unless its id was invalidated since {@link #generationOf(Long)} returned
+     * {@code generationOfId}.
+     */
+    public void putIfUnchanged(UserResponseDTO user, long generationOfId) {
+        putUnlessChanged(user, stripe(user.getId()), generationOfId);
+    }
+
+    /**
+     * Caches {@code user} unless any user was invalidated since {@link #generation()} returned
+     * {@code generation}.
+     */
+    public void putIfNothingInvalidated(UserResponseDTO user, long generation) {
+        putUnlessChanged(user, SHARED_GENERATION, generation);
+    }
+
+    public long generationOf(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    public long generation() {
+        return generations.get(SHARED_GENERATION);
+    }
+
+    public void invalidate(Long id) {
+        // Bumped before the entry is removed, so a load that put its result after the removal sees it.
+        generations.incrementAndGet(stripe(id));
+        generations.incrementAndGet(SHARED_GENERATION);
+        remove(id);
+    }
+
+    /**
+     * Checks the generation again after the put: an invalidation between the first check and the put
+     * has already removed the entry it was racing with, so this put would otherwise outlive it.
+     */
+    private void putUnlessChanged(UserResponseDTO user, int slot, long expected) {
+        if (generations.get(slot) != expected) {
+            return;
+        }
+        put(user);
+        if (generations.get(slot) != expected) {
+            remove(user.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        UserResponseDTO removed = usersById.remove(id);
+        if (removed != null) {
+            unindex(removed);
+        }
+    }
+
+    private static int stripe(Long id) {
+        return (int) Hashing.mix64(id) & (GENERATION_STRIPES - 1);
+    }
+
+    private void unindex(UserResponseDTO user) {
+        idsByEmail.remove(EmailNormalizer.normalize(user.getEmail()), user.getId());
+    }
+
+    private UserResponseDTO record(UserResponseDTO user) {
+        (user != null ? hits : misses).increment();
+        return user;
+    }
+}
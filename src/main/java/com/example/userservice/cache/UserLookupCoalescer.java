@@ -0,0 +1,48 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.dto.UserResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer in front of the user queries, so a burst of lookups for the same cold user
+ * costs one database round trip.
+ */
+@Component
+public class UserLookupCoalescer {
+
+    private final SingleFlight<Long, UserResponseDTO> byId = new SingleFlight<>();
+    private final SingleFlight<String, UserResponseDTO> byEmail = new SingleFlight<>();
+
+    public UserLookupCoalescer(MeterRegistry meterRegistry) {
+        register(meterRegistry, byId, "id");
+        register(meterRegistry, byEmail, "email");
+    }
+
+    public Mono<UserResponseDTO> byId(Long id, Supplier<Mono<UserResponseDTO>> loader) {
+        return byId.execute(id, loader);
+    }
+
+    public Mono<UserResponseDTO> byEmail(String email, Supplier<Mono<UserResponseDTO>> loader) {
+        return byEmail.execute(email, loader);
+    }
+
+    private static void register(MeterRegistry meterRegistry, SingleFlight<?, ?> flights, String key) {
+        FunctionCounter.builder("user.lookup.queries", flights, SingleFlight::executedCount)
+                .description("Lookups that issued a query")
+                .tag("key", key)
+                .register(meterRegistry);
+        FunctionCounter.builder("user.lookup.coalesced", flights, SingleFlight::coalescedCount)
+                .description("Lookups that joined an in-flight query instead of issuing their own")
+                .tag("key", key)
+                .register(meterRegistry);
+        Gauge.builder("user.lookup.in.flight", flights, SingleFlight::inFlightCount)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.userservice.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers bearer tokens whose signature has already been checked, keyed by their SHA-256 digest so
+ * the tokens themselves are never retained. An entry is only served until the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(VerifiedTokenCache::newSha256);
+
+    private final LongObjectCache<Entry> entries;
+    private final LongSupplier clock;
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jwt.verified-cache.max-size}") int maxSize,
+                              @Value("${jwt.expiration}") long expirationMillis) {
+        this(meterRegistry, maxSize, expirationMillis, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, int maxSize, long expirationMillis, LongSupplier clock) {
+        // Tokens are issued with a fixed lifetime, so it also bounds how long any entry can stay useful.
+        this.entries = new LongObjectCache<>(maxSize, expirationMillis, Runtime.getRuntime().availableProcessors() * 4,
+                clock, entry -> { });
+        this.clock = clock;
+
+        Gauge.builder("jwt.verified.cache.size", entries, LongObjectCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the authentication previously verified for this exact token, or {@code null} when the
+     * token is unknown or has expired since.
+     */
+    public Authentication get(String token) {
+        ByteBuffer digest = digest(token);
+        long key = digest.getLong();
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.matches(digest)) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.getAsLong()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.authentication();
+    }
+
+    public void put(String token, Authentication authentication, long expiresAtMillis) {
+        ByteBuffer digest = digest(token);
+        long key = digest.getLong();
+        entries.put(key, new Entry(digest.getLong(), digest.getLong(), digest.getLong(), authentication, expiresAtMillis));
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The first 64 bits of the digest select the slot; the remaining 192 bits confirm the match.
+     */
+    private record Entry(long digest1, long digest2, long digest3, Authentication authentication, long expiresAtMillis) {
+
+        boolean matches(ByteBuffer digest) {
+            return digest1 == digest.getLong() && digest2 == digest.getLong() && digest3 == digest.getLong();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.userservice.commons;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replays a request body that a web filter has already read, so the filter can inspect the body and still
+ * hand the request on unchanged.
+ */
+public final class BufferedBodyRequest extends ServerHttpRequestDecorator {
+
+    private final byte[] body;
+
+    public BufferedBodyRequest(ServerHttpRequest delegate, byte[] body) {
+        super(delegate);
+        this.body = body;
+    }
+
+    /**
+     * Reads the whole body of {@code request}, or fails with
+     * {@link org.springframework.core.io.buffer.DataBufferLimitException} past {@code maxBytes}.
+     */
+    public static Mono<byte[]> readBody(ServerHttpRequest request, int maxBytes) {
+        return DataBufferUtils.join(request.getBody(), maxBytes)
+                .map(BufferedBodyRequest::toBytes)
+                .defaultIfEmpty(new byte[0]);
+    }
+
+    @Override
+    public Flux<DataBuffer> getBody() {
+        return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
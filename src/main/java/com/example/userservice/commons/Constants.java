@@ -10,6 +10,7 @@ public class Constants {
     public static final String IS_REQUIRED = " is required and cannot be empty or blank.";
     public static final String IS_NOT_VALID = " is not valid.";
     public static final String MIN_LENGTH = " must be at least %d characters long.";
+    public static final String MAX_LENGTH = " must be at most %d characters long.";
 
     public static final String NAME_IS_REQUIRED = NAME + IS_REQUIRED;
     public static final String EMAIL_IS_REQUIRED = EMAIL + IS_REQUIRED;
@@ -20,9 +21,21 @@ public class Constants {
     public static final String NAME_MIN_LENGTH = NAME + MIN_LENGTH;
     public static final String PASSWORD_MIN_LENGTH = PASSWORD + MIN_LENGTH;
 
+    public static final String NAME_MAX_LENGTH = NAME + MAX_LENGTH;
+    public static final String EMAIL_MAX_LENGTH = EMAIL + MAX_LENGTH;
+
+    public static final String INVALID_CURSOR = "The pagination cursor is not valid.";
+    public static final String PAGE_LIMIT_OUT_OF_RANGE = "Limit must be between 1 and %d.";
+    public static final String PAGE_LIMIT_REQUIRED = "A limit must be provided with a pagination cursor.";
+
+    public static final String IDS_REQUIRED = "At least one id must be provided and ids cannot be null.";
+    public static final String TOO_MANY_IDS = "At most %d ids can be provided.";
+    public static final String NO_FIELDS_TO_UPDATE = "At least one of name, email or password must be provided.";
+
     public static final String EMAIL_ALREADY_EXISTS = "There is an user already created with that email.";
 
     // Exception messages
     public static final String USER_NOT_FOUND_ID = "User not found with Id: ";
     public static final String USER_NOT_FOUND_EMAIL = "User not found with Email: ";
+    public static final String PASSWORD_HASHING_BUSY = "The service is busy, please try again later.";
 }
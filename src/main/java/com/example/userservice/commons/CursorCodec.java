@@ -0,0 +1,38 @@
+package com.example.userservice.commons;
+
+import com.example.userservice.exception.BadRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+import static com.example.userservice.commons.Constants.INVALID_CURSOR;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursors.
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final BadRequestException INVALID = new BadRequestException(INVALID_CURSOR);
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long id) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(id).array());
+    }
+
+    public static long decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw INVALID;
+        }
+        if (bytes.length != Long.BYTES) {
+            throw INVALID;
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.userservice.commons;
+
+import java.util.Locale;
+
+/**
+ * The canonical form emails are matched on, stored in the {@code email_normalized} column.
+ * Must stay in step with the {@code LOWER(TRIM(email))} backfill in {@code schema.sql}; accepted emails
+ * are ASCII, where both agree.
+ */
+public final class EmailNormalizer {
+
+    private EmailNormalizer() {
+    }
+
+    /**
+     * Trims and lower-cases {@code email}, returning the same instance when it is already normalized.
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
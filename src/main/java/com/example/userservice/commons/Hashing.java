@@ -0,0 +1,36 @@
+package com.example.userservice.commons;
+
+/**
+ * Fast, non-cryptographic 64-bit hashing for in-memory tables and filters.
+ */
+public final class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units of {@code value}, finished with {@link #mix64(long)}.
+     */
+    public static long hash64(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer: spreads every input bit over the whole result.
+     */
+    public static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.userservice.commons;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads single fields from a buffered JSON request body with the streaming parser, for web filters that
+ * need one value before the request reaches its controller.
+ */
+public final class JsonBodyFields {
+
+    private JsonBodyFields() {
+    }
+
+    /**
+     * Returns the top-level string {@code field} of a JSON object, or {@code null} when the body has none
+     * or it is not a string; malformed bodies are left for the controller to reject.
+     */
+    public static String readString(JsonFactory jsonFactory, byte[] body, String field) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals(name)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
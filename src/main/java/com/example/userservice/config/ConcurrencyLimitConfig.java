@@ -0,0 +1,44 @@
+package com.example.userservice.config;
+
+import com.example.userservice.limit.ConcurrencyLimitWebFilter;
+import com.example.userservice.limit.ConcurrencyLimitWebFilter.AimdSettings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limits for the auth and read routes, applied ahead of Spring Security so shed
+ * requests cost no token verification or body parsing. Only user updates have their body read here, to
+ * find out whether they hash a password.
+ */
+@Configuration
+@ConditionalOnProperty(name = "concurrency.limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public ConcurrencyLimitWebFilter concurrencyLimitWebFilter(
+            @Value("${concurrency.limit.auth.initial}") int authInitial,
+            @Value("${concurrency.limit.auth.min}") int authMin,
+            @Value("${concurrency.limit.auth.max}") int authMax,
+            @Value("${concurrency.limit.auth.latency-threshold}") Duration authLatencyThreshold,
+            @Value("${concurrency.limit.read.initial}") int readInitial,
+            @Value("${concurrency.limit.read.min}") int readMin,
+            @Value("${concurrency.limit.read.max}") int readMax,
+            @Value("${concurrency.limit.read.latency-threshold}") Duration readLatencyThreshold,
+            @Value("${concurrency.limit.backoff-ratio}") double backoffRatio,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitWebFilter(
+                new AimdSettings(authInitial, authMin, authMax, authLatencyThreshold),
+                new AimdSettings(readInitial, readMin, readMax, readLatencyThreshold),
+                backoffRatio, objectMapper.getFactory(), meterRegistry);
+    }
+}
@@ -2,23 +2,35 @@ package com.example.userservice.config;
 
 import com.example.userservice.service.UserService;
 import lombok.AllArgsConstructor;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
+import java.util.Collections;
 
 @Service
 @AllArgsConstructor
-public class CustomUserDetailsService implements ReactiveUserDetailsService {
+public class CustomUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
 
     private final UserService userService;
 
     @Override
     public Mono<UserDetails> findByUsername(String username) {
-        return userService.getUserByEmail(username)
-                .map(userEntity -> new User(userEntity.getEmail(), userEntity.getPassword(), new ArrayList<>()));
+        return userService.getCredentialsByEmail(username)
+                .map(credentials -> new User(credentials.email(), credentials.password(), Collections.emptyList()));
+    }
+
+    /**
+     * Stores a re-encoded hash for a user who just logged in. The write only applies while the stored hash
+     * is still the one the login matched, so the user is returned unchanged when the password was changed
+     * in the meantime.
+     */
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userService.replacePasswordHash(user.getUsername(), user.getPassword(), newPassword)
+                .map(replaced -> replaced ? User.withUserDetails(user).password(newPassword).build() : user);
     }
 }
@@ -1,32 +1,138 @@
 package com.example.userservice.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
 
 @Component
 public class JwtUtils {
 
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final byte[] encodedHeader;
+    private final ThreadLocal<Mac> macs;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
     public JwtUtils(@Value("${jwt.secret}") String secret) {
         this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        this.encodedHeader = encodeHeader(secretKey);
+        this.macs = ThreadLocal.withInitial(this::newMac);
     }
 
+    /**
+     * Mints the same compact JWS that {@code Jwts.builder().subject(..).issuedAt(..).expiration(..).signWith(key)}
+     * produces, byte for byte, without going through the builder: the header segment is encoded once,
+     * the claims are written by hand and each thread keeps its own initialized {@link Mac}.
+     */
     public String generateToken(String username) {
-        return Jwts.builder()
-                .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(secretKey)
-                .compact();
+        return generateToken(username, System.currentTimeMillis());
+    }
+
+    String generateToken(String username, long nowMillis) {
+        byte[] payload = BASE64_URL.encode(writeClaims(username, nowMillis / 1000, (nowMillis + expiration) / 1000));
+
+        Mac mac = macs.get();
+        mac.update(encodedHeader);
+        mac.update(payload);
+        byte[] signature = BASE64_URL.encode(mac.doFinal());
+
+        int payloadEnd = encodedHeader.length + payload.length;
+        byte[] token = Arrays.copyOf(encodedHeader, payloadEnd + 1 + signature.length);
+        System.arraycopy(payload, 0, token, encodedHeader.length, payload.length);
+        token[payloadEnd] = '.';
+        System.arraycopy(signature, 0, token, payloadEnd + 1, signature.length);
+        return new String(token, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Verifies the signature and expiry of a token issued by {@link #generateToken(String)} and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verifyToken(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * The Base64URL header segment plus the trailing dot. {@link Keys#hmacShaKeyFor(byte[])} names the key
+     * HmacSHA256, HmacSHA384 or HmacSHA512 by its length, which is how jjwt picks HS256, HS384 or HS512.
+     */
+    private static byte[] encodeHeader(SecretKey secretKey) {
+        String algorithm = "HS" + secretKey.getAlgorithm().substring("HmacSHA".length());
+        String header = "{\"alg\":\"" + algorithm + "\"}";
+        return (BASE64_URL.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + ".").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes the claims in the order and format jjwt serializes them: dates as epoch seconds and a blank
+     * subject left out.
+     */
+    private static byte[] writeClaims(String subject, long issuedAt, long expiresAt) {
+        StringBuilder json = new StringBuilder(48 + (subject == null ? 0 : subject.length()));
+        json.append('{');
+        if (subject != null && !subject.isBlank()) {
+            json.append("\"sub\":\"");
+            appendEscaped(json, subject);
+            json.append("\",");
+        }
+        json.append("\"iat\":").append(issuedAt)
+                .append(",\"exp\":").append(expiresAt)
+                .append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escapes like the Jackson generator jjwt serializes with: quotes, backslashes, control characters
+     * and, since it does not combine surrogate pairs, both halves of any supplementary character.
+     */
+    private static void appendEscaped(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\b' -> json.append("\\b");
+                case '\t' -> json.append("\\t");
+                case '\n' -> json.append("\\n");
+                case '\f' -> json.append("\\f");
+                case '\r' -> json.append("\\r");
+                default -> {
+                    if (c < 0x20 || Character.isSurrogate(c)) {
+                        json.append("\\u")
+                                .append(HEX_DIGITS[c >> 12]).append(HEX_DIGITS[(c >> 8) & 0xF])
+                                .append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(secretKey.getAlgorithm());
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + secretKey.getAlgorithm(), e);
+        }
     }
 }
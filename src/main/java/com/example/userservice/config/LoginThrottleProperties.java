@@ -0,0 +1,28 @@
+package com.example.userservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class LoginThrottleProperties {
+
+    @Value("${login.throttle.enabled}")
+    private boolean enabled;
+
+    @Value("${login.throttle.ip.per-minute}")
+    private int ipPerMinute;
+
+    @Value("${login.throttle.ip.burst}")
+    private int ipBurst;
+
+    @Value("${login.throttle.email.per-minute}")
+    private int emailPerMinute;
+
+    @Value("${login.throttle.email.burst}")
+    private int emailBurst;
+
+    @Value("${login.throttle.max-entries}")
+    private int maxEntries;
+}
@@ -1,21 +1,44 @@
 package com.example.userservice.config;
 
+import com.example.userservice.cache.VerifiedTokenCache;
+import com.example.userservice.security.JwtAuthenticationWebFilter;
+import com.example.userservice.security.LoginThrottleWebFilter;
+import com.example.userservice.security.PasswordHashingAuthenticationManager;
+import com.example.userservice.security.PasswordHashingExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
-import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
+import java.util.Map;
+
 @Configuration
 public class SecurityConfig {
 
+    private static final String BCRYPT = "bcrypt";
+    private static final String PBKDF2 = "pbkdf2@SpringSecurity_v5_8";
+
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtils jwtUtils,
+                                                         VerifiedTokenCache verifiedTokenCache, MeterRegistry meterRegistry,
+                                                         LoginThrottleProperties loginThrottleProperties, ObjectMapper objectMapper) {
+        if (loginThrottleProperties.isEnabled()) {
+            http.addFilterBefore(new LoginThrottleWebFilter(loginThrottleProperties, objectMapper.getFactory(), meterRegistry),
+                    SecurityWebFiltersOrder.AUTHENTICATION);
+        }
         http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtUtils, verifiedTokenCache, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
                 .authorizeExchange(authorizeExchangeSpec ->
                         authorizeExchangeSpec
                                 .pathMatchers("/v3/api-docs/**", "/webjars/swagger-ui/**", "/swagger-ui.html", "/h2-console/**").permitAll()
@@ -29,15 +52,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    public ReactiveAuthenticationManager authenticationManager(CustomUserDetailsService customUserDetailsService) {
-        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
-                new UserDetailsRepositoryReactiveAuthenticationManager(customUserDetailsService);
-        authenticationManager.setPasswordEncoder(passwordEncoder());
-        return authenticationManager;
+    public ReactiveAuthenticationManager authenticationManager(CustomUserDetailsService customUserDetailsService,
+                                                               PasswordHashingExecutor passwordHashingExecutor) {
+        return new PasswordHashingAuthenticationManager(customUserDetailsService, customUserDetailsService,
+                passwordHashingExecutor);
     }
 
+    /**
+     * New hashes are stored as {@code {id}hash} with the encoder named by {@code password.encoding.id};
+     * any registered encoder still verifies the hashes it produced. Hashes from before the prefix scheme
+     * are plain BCrypt and are matched as such.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password.encoding.id}") String encodingId,
+                                           @Value("${password.bcrypt.strength}") int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, new BCryptPasswordEncoder(bcryptStrength),
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return passwordEncoder;
     }
 }
@@ -0,0 +1,54 @@
+package com.example.userservice.config;
+
+import com.example.userservice.timing.ServerTimingJsonEncoder;
+import com.example.userservice.timing.ServerTimingRepositoryInterceptor;
+import com.example.userservice.timing.ServerTimingWebFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Per-request phase timing, reported in the {@code Server-Timing} header. Nothing here is registered
+ * unless {@code server-timing.enabled} is set, so disabled timing adds no filter, codec or proxy.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ServerTimingWebFilter serverTimingWebFilter(@Value("${server-timing.log-sample-rate}") double logSampleRate) {
+        return new ServerTimingWebFilter(logSampleRate);
+    }
+
+    /**
+     * Runs after Spring Boot's Jackson customizer so the timing encoder keeps the application's ObjectMapper.
+     */
+    @Bean
+    @Order(1)
+    public CodecCustomizer serverTimingCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(new ServerTimingJsonEncoder(objectMapper));
+    }
+
+    @Bean
+    public static BeanPostProcessor serverTimingRepositoryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(repositoryFactory ->
+                            repositoryFactory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new ServerTimingRepositoryInterceptor())));
+                }
+                return bean;
+            }
+        };
+    }
+}
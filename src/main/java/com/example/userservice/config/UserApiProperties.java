@@ -0,0 +1,19 @@
+package com.example.userservice.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class UserApiProperties {
+
+    @Value("${users.page.max-limit}")
+    private int maxPageLimit;
+
+    @Value("${users.batch.max-ids}")
+    private int maxBatchIds;
+
+    @Value("${users.batch.chunk-size}")
+    private int batchChunkSize;
+}
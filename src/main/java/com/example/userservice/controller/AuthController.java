@@ -2,6 +2,7 @@ package com.example.userservice.controller;
 
 import com.example.userservice.dto.LoginRequest;
 import com.example.userservice.dto.UserRequestDTO;
+import com.example.userservice.exception.ServiceUnavailableException;
 import com.example.userservice.service.AuthService;
 import com.example.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -59,6 +60,9 @@ public class AuthController {
             @ApiResponse(responseCode = "400", description = "Invalid credentials.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(type = "string", example = "Invalid username or password."))),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent logins.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "The service is busy, please try again later."))),
             @ApiResponse(responseCode = "500", description = "Internal server error.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(type = "string", example = "An error occurred while processing your request.")))
@@ -68,6 +72,7 @@ public class AuthController {
             @Parameter(description = "Login request with username and password", required = true) LoginRequest loginRequest) {
         return authService.authenticateUser(loginRequest)
                 .map(ResponseEntity::ok)
-                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()));
+                .onErrorResume(e -> !(e instanceof ServiceUnavailableException),
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()));
     }
 }
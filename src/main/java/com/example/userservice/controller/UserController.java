@@ -1,8 +1,11 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.DeleteUsersResponseDTO;
+import com.example.userservice.dto.UserLookupResultDTO;
+import com.example.userservice.dto.UserPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
-import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.exception.BadRequestException;
 import com.example.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,27 +16,38 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.userservice.commons.Constants.PAGE_LIMIT_REQUIRED;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/users")
 @Tag(name = "UserController", description = "Operations related to user management")
 public class UserController {
 
+    private static final BadRequestException MISSING_PAGE_LIMIT = new BadRequestException(PAGE_LIMIT_REQUIRED);
+
     private final UserService userService;
-    private final UserMapper userMapper;
 
     @PostMapping
     @Operation(summary = "Create a new User", description = "Creates a new user and returns the user.")
@@ -78,34 +92,114 @@ public class UserController {
                 .map(existingUser -> ResponseEntity.status(HttpStatus.OK).body(existingUser));
     }
 
-    @GetMapping
-    @Operation(summary = "Get All Users", description = "Returns all users.")
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get All Users", description = "Streams all users as a JSON array or as newline-delimited JSON.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Users successfully returned.",
-                    content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = UserResponseDTO.class))),
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UserResponseDTO.class)),
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = UserResponseDTO.class))}),
+            @ApiResponse(responseCode = "204", description = "There are no users."),
             @ApiResponse(responseCode = "500", description = "Internal server error.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(type = "string", example = "An error occurred while processing your request.")))
     })
-    public Mono<ResponseEntity<Flux<UserResponseDTO>>> getAllUsers() {
+    public Mono<ResponseEntity<Flux<UserResponseDTO>>> getAllUsers(ServerWebExchange exchange) {
+        // Only the first row is inspected to choose between 204 and 200; the rest is streamed as it arrives.
         return userService.getAllUsers()
-                .collectList() // Collect to a List first
-                .flatMap(users -> {
-                    if (users.isEmpty()) {
-                        return Mono.just(ResponseEntity.noContent().build());
-                    } else {
-                        return Mono.just(ResponseEntity.ok(Flux.fromIterable(users)));
-                    }
-                });
+                .switchOnFirst((first, users) -> first.hasValue()
+                        ? Mono.just(ResponseEntity.ok(cancelUnlessWritten(users, exchange)))
+                        : users.then(Mono.just(ResponseEntity.noContent().<Flux<UserResponseDTO>>build())), false)
+                .singleOrEmpty();
+    }
+
+    /**
+     * The query stays open after the first row until the body is subscribed, since the source must outlive
+     * the Mono that carries it. If the response commits without the body, for example because an error was
+     * written instead, the query is cancelled so its connection is released.
+     */
+    private static Flux<UserResponseDTO> cancelUnlessWritten(Flux<UserResponseDTO> users, ServerWebExchange exchange) {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        Flux<UserResponseDTO> body = users.doOnSubscribe(subscription -> subscribed.set(true));
+        exchange.getResponse().beforeCommit(() -> {
+            if (subscribed.compareAndSet(false, true)) {
+                body.subscribe().dispose();
+            }
+            return Mono.empty();
+        });
+        return body;
+    }
+
+    @PostMapping(value = "/batch-get", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get Users by IDs", description = "Returns one result per requested ID, in request order, marking the IDs that do not exist.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Results successfully returned.",
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UserLookupResultDTO.class)),
+                            @Content(mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = UserLookupResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Missing or too many IDs.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "At most 1000 ids can be provided."))),
+            @ApiResponse(responseCode = "500", description = "Internal server error.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "An error occurred while processing your request.")))
+    })
+    public Flux<UserLookupResultDTO> getUsersByIds(
+            @RequestBody
+            @Parameter(description = "IDs of the users to be retrieved", required = true) List<Long> ids) {
+        return userService.getUsersByIds(ids);
+    }
+
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get a Page of Users", description = "Returns up to `limit` users ordered by ID, starting after the given cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page successfully returned.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "The pagination cursor is not valid."))),
+            @ApiResponse(responseCode = "500", description = "Internal server error.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "An error occurred while processing your request.")))
+    })
+    public Mono<ResponseEntity<UserPageDTO>> getUserPage(
+            @RequestParam(name = "after", required = false)
+            @Parameter(description = "Cursor returned as `nextCursor` by the previous page; omit for the first page") String after,
+            @RequestParam(name = "limit")
+            @Parameter(description = "Maximum number of users to return", required = true, example = "50") int limit) {
+        return userService.getUserPage(after, limit)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Without this mapping a cursor with no limit would fall through to the unpaged listing and stream
+     * every user.
+     */
+    @GetMapping(params = {"after", "!limit"})
+    @Operation(summary = "Get a Page of Users without a Limit", description = "Rejected: a cursor must come with `limit`.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "Missing limit.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "A limit must be provided with a pagination cursor.")))
+    })
+    public Mono<ResponseEntity<UserPageDTO>> getUserPageWithoutLimit() {
+        return Mono.error(MISSING_PAGE_LIMIT);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update User", description = "Updates an existing user.")
+    @Operation(summary = "Update User", description = "Replaces the name and email of an existing user. The password is only changed when supplied.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User successfully updated.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = UserResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "Invalid user data."))),
             @ApiResponse(responseCode = "404", description = "User not found.",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(type = "string", example = "User not found."))),
@@ -123,6 +217,34 @@ public class UserController {
 
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially Update User", description = "Updates only the supplied fields of an existing user.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User successfully updated.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "Invalid user data."))),
+            @ApiResponse(responseCode = "404", description = "User not found.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "User not found."))),
+            @ApiResponse(responseCode = "409", description = "Conflict.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "There is a user already created with that email."))),
+            @ApiResponse(responseCode = "500", description = "Internal server error.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "An error occurred while processing your request.")))
+    })
+    public Mono<ResponseEntity<UserResponseDTO>> patchUser(
+            @PathVariable("id")
+            @Parameter(description = "ID of the user to be updated", required = true, example = "1") Long id,
+            @RequestBody
+            @Parameter(description = "Fields to update", required = true) UserRequestDTO userRequestDTO) {
+        return userService.patchUser(id, userRequestDTO)
+                .map(ResponseEntity::ok);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete User", description = "Deletes an existing user.")
     @ApiResponses(value = {
@@ -141,10 +263,34 @@ public class UserController {
                 .then(Mono.just(ResponseEntity.status(HttpStatus.NO_CONTENT).build()));
     }
 
+    @DeleteMapping
+    @Operation(summary = "Delete Users", description = "Deletes every user whose ID is in the request body, in a single statement.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users deleted; returns how many existed.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DeleteUsersResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or too many IDs.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "At most 1000 ids can be provided."))),
+            @ApiResponse(responseCode = "500", description = "Internal server error.",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(type = "string", example = "An error occurred while processing your request.")))
+    })
+    public Mono<ResponseEntity<DeleteUsersResponseDTO>> deleteUsers(
+            @RequestBody
+            @Parameter(description = "IDs of the users to be deleted", required = true) List<Long> ids) {
+        return userService.deleteUsers(ids)
+                .map(ResponseEntity::ok);
+    }
+
     @GetMapping("/current")
     public Mono<UserResponseDTO> getCurrent(ServerWebExchange exchange) {
-        String userEmail = exchange.getRequest().getHeaders().getFirst("username");
-        return userService.getUserByEmail(userEmail)
-                .map(userMapper::toResponseDto);
+        // Prefer the identity from a verified bearer token; the username header is still honoured for
+        // callers that only reach us through the gateway.
+        return exchange.getPrincipal()
+                .filter(principal -> !(principal instanceof AnonymousAuthenticationToken))
+                .map(Principal::getName)
+                .switchIfEmpty(Mono.fromSupplier(() -> exchange.getRequest().getHeaders().getFirst("username")))
+                .flatMap(userService::getUserByEmail);
     }
 }
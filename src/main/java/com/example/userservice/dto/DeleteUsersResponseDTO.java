@@ -0,0 +1,13 @@
+package com.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteUsersResponseDTO {
+
+    private long deleted;
+}
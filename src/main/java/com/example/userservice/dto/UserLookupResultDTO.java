@@ -0,0 +1,17 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserLookupResultDTO {
+
+    private Long id;
+    private boolean found;
+    private UserResponseDTO user;
+}
@@ -0,0 +1,16 @@
+package com.example.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+
+    private List<UserResponseDTO> users;
+    private String nextCursor;
+}
@@ -1,15 +1,14 @@
 package com.example.userservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Value;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@AllArgsConstructor(onConstructor_ = @JsonCreator)
 public class UserResponseDTO {
 
-    private Long id;
-    private String name;
-    private String email;
+    Long id;
+    String name;
+    String email;
 }
@@ -0,0 +1,7 @@
+package com.example.userservice.entity;
+
+/**
+ * The columns needed to authenticate a user, read without loading the rest of the row.
+ */
+public record UserCredentials(String email, String password) {
+}
@@ -0,0 +1,9 @@
+package com.example.userservice.entity;
+
+/**
+ * A user's normalized email and the email version it was written with, streamed to build lookups over
+ * every registered email. Rows whose email has not been written since versions were introduced have
+ * version 0.
+ */
+public record UserEmailKey(long version, String emailNormalized) {
+}
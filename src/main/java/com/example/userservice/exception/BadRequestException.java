@@ -1,10 +1,11 @@
 package com.example.userservice.exception;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 
 import java.util.List;
 
-public class BadRequestException extends RuntimeException {
+public class BadRequestException extends BusinessException {
 
     private final List<FieldError> fieldErrors;
 
@@ -14,11 +15,27 @@ public class BadRequestException extends RuntimeException {
     }
 
     public BadRequestException(List<FieldError> fieldErrors) {
-        super(fieldErrors.toString());
+        super(null);
         this.fieldErrors = fieldErrors;
     }
 
     public List<FieldError> getFieldErrors() {
         return fieldErrors;
     }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    /**
+     * The message of the first rejected field, which is what the response reports.
+     */
+    @Override
+    public String getMessage() {
+        if (fieldErrors != null && !fieldErrors.isEmpty()) {
+            return fieldErrors.get(0).getDefaultMessage();
+        }
+        return super.getMessage();
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Expected outcomes of a request, such as a missing user or a taken email, rather than faults. They are
+ * always answered with a fixed status and their message, so they skip the stack trace and suppression
+ * list: an instance with a constant message can be created once and thrown from any number of requests.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+
+    public abstract HttpStatus getStatus();
+
+    /**
+     * Appends the message to an error body being built, without concatenating it into a String first
+     * when it has several parts.
+     */
+    public void appendMessage(StringBuilder target) {
+        target.append(getMessage());
+    }
+}
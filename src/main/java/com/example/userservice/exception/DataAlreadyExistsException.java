@@ -1,7 +1,14 @@
 package com.example.userservice.exception;
 
-public class DataAlreadyExistsException extends RuntimeException{
+import org.springframework.http.HttpStatus;
+
+public class DataAlreadyExistsException extends BusinessException {
     public DataAlreadyExistsException(String message) {
         super(message);
     }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
 }
@@ -0,0 +1,104 @@
+package com.example.userservice.exception;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the {@link ErrorResponse} body of a {@link BusinessException} by hand, straight into the response
+ * buffer, instead of building the object and handing it to the Jackson encoder. The output has the same
+ * fields; the timestamp is formatted once per millisecond and shared by every error in that millisecond.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Clock clock;
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, "");
+
+    public ErrorResponseWriter() {
+        this(Clock.systemDefaultZone());
+    }
+
+    ErrorResponseWriter(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Mono<Void> write(ServerWebExchange exchange, BusinessException exception) {
+        ServerHttpResponse response = exchange.getResponse();
+        DataBuffer body = encode(response.bufferFactory(), exception, exchange.getRequest().getPath().value());
+        response.setStatusCode(exception.getStatus());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.readableByteCount());
+        return response.writeWith(Mono.just(body));
+    }
+
+    public DataBuffer encode(DataBufferFactory bufferFactory, BusinessException exception, String path) {
+        StringBuilder json = new StringBuilder(64 + path.length());
+        json.append("{\"timestamp\":\"").append(timestamp()).append("\",\"message\":\"");
+        int messageStart = json.length();
+        exception.appendMessage(json);
+        escapeFrom(json, messageStart);
+        json.append("\",\"details\":\"");
+        appendEscaped(json, path);
+        json.append("\"}");
+        return bufferFactory.allocateBuffer(json.length()).write(json, StandardCharsets.UTF_8);
+    }
+
+    private String timestamp() {
+        long now = clock.millis();
+        Timestamp current = timestamp;
+        if (current.millis() != now) {
+            current = new Timestamp(now, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(now), clock.getZone())));
+            timestamp = current;
+        }
+        return current.text();
+    }
+
+    /**
+     * Messages almost never need escaping, so they are appended as they are and only rewritten when a
+     * character from {@code start} on turns out to need it.
+     */
+    private static void escapeFrom(StringBuilder json, int start) {
+        for (int i = start; i < json.length(); i++) {
+            if (needsEscaping(json.charAt(i))) {
+                String raw = json.substring(start);
+                json.setLength(start);
+                appendEscaped(json, raw);
+                return;
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!needsEscaping(c)) {
+                json.append(c);
+            } else if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else {
+                json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            }
+        }
+    }
+
+    private static boolean needsEscaping(char c) {
+        return c < 0x20 || c == '"' || c == '\\';
+    }
+
+    private record Timestamp(long millis, String text) {
+    }
+}
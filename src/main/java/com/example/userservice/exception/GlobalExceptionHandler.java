@@ -1,45 +1,44 @@
 package com.example.userservice.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.AllArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.example.userservice.commons.Constants.EMAIL_ALREADY_EXISTS;
 
 @ControllerAdvice
+@AllArgsConstructor
 public class GlobalExceptionHandler {
 
-    @ExceptionHandler({UserNotFoundException.class})
-    public Mono<ResponseEntity<ErrorResponse>> handleResourceNotFoundException(UserNotFoundException unfe, ServerWebExchange exchange) {
-
-        ErrorResponse errorDetails = getErrorDetails(unfe.getMessage(), exchange);
-
-        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorDetails));
-    }
-
-    @ExceptionHandler({BadRequestException.class})
-    public Mono<ResponseEntity<ErrorResponse>> handleBadRequestException(BadRequestException bre, ServerWebExchange exchange) {
-        String errorMessage = extractErrorMessage(bre);
-
-        ErrorResponse errorDetails = getErrorDetails(errorMessage, exchange);
-
-        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorDetails));
-    }
-
-    @ExceptionHandler(DataAlreadyExistsException.class)
-    public Mono<ResponseEntity<ErrorResponse>> handleDataAlreadyExistsException(DataAlreadyExistsException daee, ServerWebExchange exchange) {
-
-        ErrorResponse errorDetails = getErrorDetails(daee.getMessage(), exchange);
-
-        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(errorDetails));
+    private final MeterRegistry meterRegistry;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final ConcurrentHashMap<Class<?>, Counter> exceptionCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Business errors are routine, so they skip the {@link ErrorResponse} object and the Jackson encoder
+     * and have their body written directly by the {@link ErrorResponseWriter}.
+     */
+    @ExceptionHandler(BusinessException.class)
+    @ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "404", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "409", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "503", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    public Mono<Void> handleBusinessException(BusinessException be, ServerWebExchange exchange) {
+        exceptionCounters.computeIfAbsent(be.getClass(), type -> exceptionCounter(type, be.getStatus())).increment();
+        return errorResponseWriter.write(exchange, be);
     }
 
     @ExceptionHandler({DataIntegrityViolationException.class})
@@ -53,7 +52,7 @@ public class GlobalExceptionHandler {
 
         ErrorResponse errorDetails = getErrorDetails(errorMessage, exchange);
 
-        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(errorDetails));
+        return respond(HttpStatus.CONFLICT, dive, errorDetails);
     }
 
     @ExceptionHandler(Exception.class)
@@ -61,7 +60,18 @@ public class GlobalExceptionHandler {
 
         ErrorResponse errorDetails = getErrorDetails(ex.getMessage(), exchange);
 
-        return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorDetails));
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, ex, errorDetails);
+    }
+
+    private Mono<ResponseEntity<ErrorResponse>> respond(HttpStatus status, Exception exception, ErrorResponse errorDetails) {
+        exceptionCounter(exception.getClass(), status).increment();
+        return Mono.just(ResponseEntity.status(status).body(errorDetails));
+    }
+
+    private Counter exceptionCounter(Class<?> exceptionType, HttpStatus status) {
+        return meterRegistry.counter("user.service.exceptions",
+                "exception", exceptionType.getSimpleName(),
+                "status", String.valueOf(status.value()));
     }
 
     private ErrorResponse getErrorDetails(String message, ServerWebExchange exchange) {
@@ -71,12 +81,4 @@ public class GlobalExceptionHandler {
                 exchange.getRequest().getPath().value());
     }
 
-    private String extractErrorMessage(BadRequestException bre) {
-        List<FieldError> fieldErrors = bre.getFieldErrors();
-        if (fieldErrors != null && !fieldErrors.isEmpty()) {
-            return fieldErrors.get(0).getDefaultMessage();
-        }
-        return bre.getMessage();
-    }
-
 }
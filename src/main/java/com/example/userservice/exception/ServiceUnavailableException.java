@@ -0,0 +1,14 @@
+package com.example.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BusinessException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
@@ -1,7 +1,39 @@
 package com.example.userservice.exception;
 
-public class UserNotFoundException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+/**
+ * Keeps the message prefix and the id or email that was looked up apart, so the message is only put
+ * together if something reads it.
+ */
+public class UserNotFoundException extends BusinessException {
+
+    private final Object key;
+
     public UserNotFoundException(String message) {
-        super(message);
+        this(message, null);
+    }
+
+    public UserNotFoundException(String prefix, Object key) {
+        super(prefix);
+        this.key = key;
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+
+    @Override
+    public String getMessage() {
+        return key == null ? super.getMessage() : super.getMessage() + key;
+    }
+
+    @Override
+    public void appendMessage(StringBuilder target) {
+        target.append(super.getMessage());
+        if (key != null) {
+            target.append(key);
+        }
     }
 }
@@ -0,0 +1,85 @@
+package com.example.userservice.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease. Each request that completes
+ * within the latency threshold, while the limit was at least half used, raises the limit by
+ * {@code 1 / limit}, about one per round of requests. A slow or dropped request multiplies it by the
+ * backoff ratio, at most once per threshold interval, so one overload episode is not punished by every
+ * request that was already in flight.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final LongSupplier ticker;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private double exactLimit;
+    private long lastDecreaseNanos;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos,
+              LongSupplier ticker) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.ticker = ticker;
+        this.exactLimit = initialLimit;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = ticker.getAsLong() - latencyThresholdNanos;
+    }
+
+    /**
+     * Claims a slot, returning the number in flight including this one, or 0 when the limit is reached.
+     */
+    int tryAcquire() {
+        int claimed = inFlight.incrementAndGet();
+        if (claimed > limit) {
+            inFlight.decrementAndGet();
+            return 0;
+        }
+        return claimed;
+    }
+
+    /**
+     * Frees a slot without adjusting the limit, for requests that tell nothing about capacity.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Frees a slot and feeds its outcome into the limit.
+     *
+     * @param inFlightAtStart the value returned by {@link #tryAcquire()}
+     */
+    void release(long latencyNanos, boolean dropped, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                long now = ticker.getAsLong();
+                if (now - lastDecreaseNanos >= latencyThresholdNanos) {
+                    lastDecreaseNanos = now;
+                    exactLimit = Math.max(minLimit, exactLimit * backoffRatio);
+                }
+            } else if (inFlightAtStart * 2 >= limit) {
+                exactLimit = Math.min(maxLimit, exactLimit + 1 / exactLimit);
+            }
+            limit = (int) exactLimit;
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.userservice.limit;
+
+import com.example.userservice.commons.BufferedBodyRequest;
+import com.example.userservice.commons.JsonBodyFields;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds load with an adaptive concurrency limit per route group instead of letting requests queue on the
+ * connection pool or the hashing executor. Every route that hashes a password shares the {@code auth}
+ * limit: authentication, registration, user creation, and updates that carry a password, which are told
+ * apart by reading the buffered request body. User reads, including batch gets, share the {@code read}
+ * limit; other requests are not limited. Requests over the limit get 503 with {@code Retry-After}.
+ * Latency is measured to the moment the response commits, so a long streamed listing counts only its
+ * time to first byte.
+ */
+public class ConcurrencyLimitWebFilter implements WebFilter {
+
+    public enum Group {
+        AUTH("auth"),
+        READ("read");
+
+        private final String metricName;
+
+        Group(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    /**
+     * Limit bounds and the latency above which a request counts as a sign of overload.
+     */
+    public record AimdSettings(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+
+        AimdLimit toLimit(double backoffRatio, LongSupplier ticker) {
+            return new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold.toNanos(), ticker);
+        }
+    }
+
+    private static final String AUTH_PATH_PREFIX = "/api/auth/";
+    private static final String USERS_PATH = "/api/users";
+    private static final String USER_PATH_PREFIX = USERS_PATH + "/";
+    private static final String BATCH_GET_PATH = USERS_PATH + "/batch-get";
+    private static final String PASSWORD_FIELD = "password";
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AimdLimit authLimit;
+    private final AimdLimit readLimit;
+    private final Counter authRejected;
+    private final Counter readRejected;
+    private final JsonFactory jsonFactory;
+    private final LongSupplier ticker;
+
+    public ConcurrencyLimitWebFilter(AimdSettings auth, AimdSettings read, double backoffRatio, JsonFactory jsonFactory,
+                                     MeterRegistry meterRegistry) {
+        this(auth, read, backoffRatio, jsonFactory, meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimitWebFilter(AimdSettings auth, AimdSettings read, double backoffRatio, JsonFactory jsonFactory,
+                              MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.jsonFactory = jsonFactory;
+        this.ticker = ticker;
+        this.authLimit = auth.toLimit(backoffRatio, ticker);
+        this.readLimit = read.toLimit(backoffRatio, ticker);
+        this.authRejected = register(meterRegistry, authLimit, Group.AUTH);
+        this.readRejected = register(meterRegistry, readLimit, Group.READ);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (isUserUpdate(request)) {
+            return BufferedBodyRequest.readBody(request, MAX_BODY_BYTES)
+                    .flatMap(body -> limit(exchange.mutate().request(new BufferedBodyRequest(request, body)).build(),
+                            chain, groupOfUpdate(body)))
+                    .onErrorResume(DataBufferLimitException.class, e -> {
+                        exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+                        return exchange.getResponse().setComplete();
+                    });
+        }
+        return limit(exchange, chain, groupOf(request));
+    }
+
+    private Mono<Void> limit(ServerWebExchange exchange, WebFilterChain chain, Group group) {
+        if (group == null) {
+            return chain.filter(exchange);
+        }
+        AimdLimit limit = group == Group.AUTH ? authLimit : readLimit;
+
+        int inFlightAtStart = limit.tryAcquire();
+        if (inFlightAtStart == 0) {
+            (group == Group.AUTH ? authRejected : readRejected).increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return response.setComplete();
+        }
+
+        long start = ticker.getAsLong();
+        AtomicLong committedAt = new AtomicLong();
+        exchange.getResponse().beforeCommit(() -> {
+            committedAt.set(ticker.getAsLong());
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.release();
+                        return;
+                    }
+                    long end = committedAt.get() != 0 ? committedAt.get() : ticker.getAsLong();
+                    boolean dropped = signal == SignalType.ON_ERROR
+                            || exchange.getResponse().getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE;
+                    limit.release(end - start, dropped, inFlightAtStart);
+                });
+    }
+
+    private static Group groupOf(ServerHttpRequest request) {
+        String path = request.getPath().pathWithinApplication().value();
+        HttpMethod method = request.getMethod();
+        if (path.startsWith(AUTH_PATH_PREFIX) || method == HttpMethod.POST && path.equals(USERS_PATH)) {
+            return Group.AUTH;
+        }
+        if (method == HttpMethod.GET && path.startsWith(USERS_PATH)
+                || method == HttpMethod.POST && path.equals(BATCH_GET_PATH)) {
+            return Group.READ;
+        }
+        return null;
+    }
+
+    /**
+     * An update only hashes when it sets a new password; a password that is not a string is rejected
+     * by the controller before anything is hashed.
+     */
+    private Group groupOfUpdate(byte[] body) {
+        return JsonBodyFields.readString(jsonFactory, body, PASSWORD_FIELD) != null ? Group.AUTH : null;
+    }
+
+    private static boolean isUserUpdate(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        return (method == HttpMethod.PUT || method == HttpMethod.PATCH)
+                && request.getPath().pathWithinApplication().value().startsWith(USER_PATH_PREFIX);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, AimdLimit limit, Group group) {
+        Gauge.builder("concurrency.limit", limit, AimdLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", group.metricName)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limit, AimdLimit::inFlight)
+                .tag("group", group.metricName)
+                .register(meterRegistry);
+        return Counter.builder("concurrency.rejected")
+                .description("Requests shed with 503 because the group was at its limit")
+                .tag("group", group.metricName)
+                .register(meterRegistry);
+    }
+}
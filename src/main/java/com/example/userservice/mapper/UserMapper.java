@@ -3,18 +3,11 @@ package com.example.userservice.mapper;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
 import com.example.userservice.entity.UserEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
 public class UserMapper {
 
-    private final PasswordEncoder passwordEncoder;
-
-    public UserMapper(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
-    }
-
     public UserResponseDTO toResponseDto(UserEntity userEntity) {
         if (userEntity == null) {
             return null;
@@ -27,7 +20,7 @@ public class UserMapper {
         );
     }
 
-    public UserEntity toEntity(UserRequestDTO userRequestDTO) {
+    public UserEntity toEntity(UserRequestDTO userRequestDTO, String encodedPassword) {
         if (userRequestDTO == null) {
             return null;
         }
@@ -35,7 +28,7 @@ public class UserMapper {
         UserEntity userEntity = new UserEntity();
         userEntity.setName(userRequestDTO.getName());
         userEntity.setEmail(userRequestDTO.getEmail());
-        userEntity.setPassword(passwordEncoder.encode(userRequestDTO.getPassword()));
+        userEntity.setPassword(encodedPassword);
 
         return userEntity;
     }
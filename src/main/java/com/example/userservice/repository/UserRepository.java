@@ -1,12 +1,20 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.entity.UserEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
-public interface UserRepository extends ReactiveCrudRepository<UserEntity, Long> {
+import java.util.Collection;
 
-    Mono<Boolean> existsByEmail(String email);
+public interface UserRepository extends ReactiveCrudRepository<UserEntity, Long>, UserRepositoryCustom {
 
-    Mono<UserEntity> findByEmail(String email);
+    @Modifying
+    @Query("DELETE FROM users WHERE id = :id")
+    Mono<Long> deleteUserById(Long id);
+
+    @Modifying
+    @Query("DELETE FROM users WHERE id IN (:ids)")
+    Mono<Long> deleteUsersByIds(Collection<Long> ids);
 }
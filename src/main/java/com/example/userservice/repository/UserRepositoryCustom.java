@@ -0,0 +1,73 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.entity.UserCredentials;
+import com.example.userservice.entity.UserEmailKey;
+import com.example.userservice.entity.UserEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Inserts the user in a single statement, relying on the unique normalized email index instead of a
+     * prior existence check. Completes empty when the email is already taken in any casing.
+     */
+    Mono<UserEntity> insertIfAbsent(UserEntity userEntity);
+
+    /**
+     * Updates only the non-null name, email and password of the given user in a single statement and
+     * returns the resulting id, name and email. Completes empty when no user has that id.
+     */
+    Mono<UserResponseDTO> updateNonNullFields(UserEntity userEntity);
+
+    /**
+     * Replaces the password hash of the user with the given email only while it still equals
+     * {@code currentHash}, so a rehash never overwrites a password changed in the meantime. Emits whether
+     * a row was updated.
+     */
+    Mono<Boolean> replacePasswordHash(String email, String currentHash, String newHash);
+
+    /*
+     * Read projections: select only id, name and email and map each row straight to the response type,
+     * so reads never fetch the password hash or materialize a UserEntity. Email lookups match on the
+     * indexed email_normalized column, so they ignore case and surrounding whitespace.
+     */
+
+    Mono<UserResponseDTO> findSummaryById(Long id);
+
+    Mono<UserResponseDTO> findSummaryByEmail(String email);
+
+    Flux<UserResponseDTO> findSummariesByIds(Collection<Long> ids);
+
+    Flux<UserResponseDTO> findAllSummaries();
+
+    /**
+     * Returns up to {@code limit} users with an id greater than {@code after}, in id order.
+     */
+    Flux<UserResponseDTO> findSummaryPageAfter(long after, int limit);
+
+    /**
+     * Reads only the email and password hash of the user with the given email. Completes empty when
+     * there is no such user.
+     */
+    Mono<UserCredentials> findCredentialsByEmail(String email);
+
+    /*
+     * Email versions come from a sequence that every insert and email change draws from, so they also
+     * mark emails replaced in place, which keep their id.
+     */
+
+    /**
+     * Streams the normalized email and email version of every user.
+     */
+    Flux<UserEmailKey> findEmailKeys();
+
+    /**
+     * Streams the normalized email and email version of every user whose email was written with a
+     * version greater than {@code version}.
+     */
+    Flux<UserEmailKey> findEmailKeysChangedAfter(long version);
+}
@@ -0,0 +1,215 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.commons.EmailNormalizer;
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.entity.UserCredentials;
+import com.example.userservice.entity.UserEmailKey;
+import com.example.userservice.entity.UserEntity;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final String NEXT_EMAIL_VERSION_POSTGRES = "nextval('users_email_version_seq')";
+    private static final String NEXT_EMAIL_VERSION_H2 = "NEXT VALUE FOR users_email_version_seq";
+
+    private static final String INSERT_USER = "INSERT INTO users (name, email, email_normalized, password, email_version) "
+            + "VALUES (:name, :email, :email_normalized, :password, %s)";
+    private static final String INSERT_USER_ON_CONFLICT_DO_NOTHING =
+            INSERT_USER + " ON CONFLICT (email_normalized) DO NOTHING RETURNING id";
+
+    private static final String UPDATE_USER = "UPDATE users SET %s WHERE id = :id";
+    private static final String UPDATE_USER_RETURNING = UPDATE_USER + " RETURNING id, name, email";
+
+    private static final String REPLACE_PASSWORD =
+            "UPDATE users SET password = :new_password WHERE email_normalized = :email AND password = :password";
+
+    private static final String SELECT_SUMMARY = "SELECT id, name, email FROM users";
+    private static final String SELECT_SUMMARY_BY_ID = SELECT_SUMMARY + " WHERE id = :id";
+    private static final String SELECT_SUMMARY_BY_EMAIL = SELECT_SUMMARY + " WHERE email_normalized = :email";
+    private static final String SELECT_SUMMARIES_BY_IDS = SELECT_SUMMARY + " WHERE id IN (:ids)";
+    private static final String SELECT_SUMMARY_PAGE = SELECT_SUMMARY + " WHERE id > :after ORDER BY id LIMIT :limit";
+
+    private static final String SELECT_EMAIL_KEYS = "SELECT COALESCE(email_version, 0) AS email_version, email_normalized FROM users";
+    private static final String SELECT_EMAIL_KEYS_CHANGED_AFTER =
+            "SELECT email_version, email_normalized FROM users WHERE email_version > :after";
+
+    private static final String SELECT_CREDENTIALS = "SELECT email, password FROM users WHERE email_normalized = :email";
+
+    private final DatabaseClient databaseClient;
+    private final boolean postgres;
+    private final String nextEmailVersion;
+    private final String insertUser;
+
+    UserRepositoryCustomImpl(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.postgres = POSTGRESQL.equals(connectionFactory.getMetadata().getName());
+        this.nextEmailVersion = postgres ? NEXT_EMAIL_VERSION_POSTGRES : NEXT_EMAIL_VERSION_H2;
+        this.insertUser = String.format(postgres ? INSERT_USER_ON_CONFLICT_DO_NOTHING : INSERT_USER, nextEmailVersion);
+    }
+
+    @Override
+    public Mono<UserEntity> insertIfAbsent(UserEntity userEntity) {
+        return (postgres ? insertOnConflictDoNothing(userEntity) : insertReturningGeneratedId(userEntity))
+                .map(id -> {
+                    userEntity.setId(id);
+                    return userEntity;
+                });
+    }
+
+    @Override
+    public Mono<UserResponseDTO> updateNonNullFields(UserEntity userEntity) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        putIfNotNull(columns, "name", userEntity.getName());
+        putIfNotNull(columns, "email", userEntity.getEmail());
+        putIfNotNull(columns, "email_normalized", EmailNormalizer.normalize(userEntity.getEmail()));
+        putIfNotNull(columns, "password", userEntity.getPassword());
+
+        String assignments = columns.keySet().stream()
+                .map(column -> column + " = :" + column)
+                .collect(Collectors.joining(", "));
+        if (userEntity.getEmail() != null) {
+            assignments += ", email_version = " + nextEmailVersion;
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql(String.format(postgres ? UPDATE_USER_RETURNING : UPDATE_USER, assignments))
+                .bind("id", userEntity.getId());
+        for (Map.Entry<String, String> column : columns.entrySet()) {
+            spec = spec.bind(column.getKey(), column.getValue());
+        }
+
+        if (postgres) {
+            return spec.map(UserRepositoryCustomImpl::toSummary).one();
+        }
+        // H2 has no RETURNING, and its FINAL TABLE delta query loses the row when the UPDATE violates the
+        // unique email constraint, so the development database reads the row back with a second statement.
+        return spec.fetch().rowsUpdated()
+                .filter(rowsUpdated -> rowsUpdated > 0)
+                .flatMap(rowsUpdated -> findSummaryById(userEntity.getId()));
+    }
+
+    @Override
+    public Mono<Boolean> replacePasswordHash(String email, String currentHash, String newHash) {
+        return databaseClient.sql(REPLACE_PASSWORD)
+                .bind("new_password", newHash)
+                .bind("email", EmailNormalizer.normalize(email))
+                .bind("password", currentHash)
+                .fetch().rowsUpdated()
+                .map(rowsUpdated -> rowsUpdated > 0);
+    }
+
+    @Override
+    public Mono<UserResponseDTO> findSummaryById(Long id) {
+        return databaseClient.sql(SELECT_SUMMARY_BY_ID)
+                .bind("id", id)
+                .map(UserRepositoryCustomImpl::toSummary)
+                .one();
+    }
+
+    @Override
+    public Mono<UserResponseDTO> findSummaryByEmail(String email) {
+        return databaseClient.sql(SELECT_SUMMARY_BY_EMAIL)
+                .bind("email", EmailNormalizer.normalize(email))
+                .map(UserRepositoryCustomImpl::toSummary)
+                .one();
+    }
+
+    @Override
+    public Flux<UserResponseDTO> findSummariesByIds(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_SUMMARIES_BY_IDS)
+                .bind("ids", ids)
+                .map(UserRepositoryCustomImpl::toSummary)
+                .all();
+    }
+
+    @Override
+    public Flux<UserResponseDTO> findAllSummaries() {
+        return databaseClient.sql(SELECT_SUMMARY)
+                .map(UserRepositoryCustomImpl::toSummary)
+                .all();
+    }
+
+    @Override
+    public Flux<UserResponseDTO> findSummaryPageAfter(long after, int limit) {
+        return databaseClient.sql(SELECT_SUMMARY_PAGE)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(UserRepositoryCustomImpl::toSummary)
+                .all();
+    }
+
+    @Override
+    public Mono<UserCredentials> findCredentialsByEmail(String email) {
+        return databaseClient.sql(SELECT_CREDENTIALS)
+                .bind("email", EmailNormalizer.normalize(email))
+                .map(row -> new UserCredentials(row.get("email", String.class), row.get("password", String.class)))
+                .one();
+    }
+
+    @Override
+    public Flux<UserEmailKey> findEmailKeys() {
+        return databaseClient.sql(SELECT_EMAIL_KEYS)
+                .map(UserRepositoryCustomImpl::toEmailKey)
+                .all();
+    }
+
+    @Override
+    public Flux<UserEmailKey> findEmailKeysChangedAfter(long version) {
+        return databaseClient.sql(SELECT_EMAIL_KEYS_CHANGED_AFTER)
+                .bind("after", version)
+                .map(UserRepositoryCustomImpl::toEmailKey)
+                .all();
+    }
+
+    private Mono<Long> insertOnConflictDoNothing(UserEntity userEntity) {
+        return bindUser(databaseClient.sql(insertUser), userEntity)
+                .map(row -> row.get("id", Number.class).longValue())
+                .one();
+    }
+
+    /**
+     * H2 has no ON CONFLICT outside its PostgreSQL compatibility mode, so the duplicate is detected
+     * from the unique violation raised by the same single INSERT.
+     */
+    private Mono<Long> insertReturningGeneratedId(UserEntity userEntity) {
+        return bindUser(databaseClient.sql(insertUser), userEntity)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Number.class).longValue())
+                .one()
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty());
+    }
+
+    private static UserResponseDTO toSummary(Readable row) {
+        return new UserResponseDTO(row.get("id", Number.class).longValue(),
+                row.get("name", String.class), row.get("email", String.class));
+    }
+
+    private static UserEmailKey toEmailKey(Readable row) {
+        return new UserEmailKey(row.get("email_version", Number.class).longValue(), row.get("email_normalized", String.class));
+    }
+
+    private static void putIfNotNull(Map<String, String> columns, String column, String value) {
+        if (value != null) {
+            columns.put(column, value);
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindUser(DatabaseClient.GenericExecuteSpec spec, UserEntity userEntity) {
+        return spec.bind("name", userEntity.getName())
+                .bind("email", userEntity.getEmail())
+                .bind("email_normalized", EmailNormalizer.normalize(userEntity.getEmail()))
+                .bind("password", userEntity.getPassword());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.userservice.repository;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.connection.SingleConnectionFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Opens the pool's initial connections at startup and runs the repository's parameterized reads once on
+ * each of them, so connection setup and statement preparation are paid before the instance takes traffic.
+ * Runs before the Eureka client registers the instance as UP. A failed warm-up is logged and startup
+ * continues.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "database.warmup.enabled", havingValue = "true")
+public class UserRepositoryWarmup implements SmartLifecycle {
+
+    /**
+     * EurekaAutoServiceRegistration registers the instance in phase 0.
+     */
+    private static final int PHASE = -1;
+
+    private final ConnectionFactory connectionFactory;
+    private final int connections;
+    private final Duration timeout;
+
+    private volatile boolean running;
+
+    @Autowired
+    public UserRepositoryWarmup(ConnectionFactory connectionFactory, R2dbcProperties r2dbcProperties,
+                                @Value("${database.warmup.timeout}") Duration timeout) {
+        this(connectionFactory, r2dbcProperties.getPool().getInitialSize(), timeout);
+    }
+
+    UserRepositoryWarmup(ConnectionFactory connectionFactory, int connections, Duration timeout) {
+        this.connectionFactory = connectionFactory;
+        this.connections = connections;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (connections < 1) {
+            // spring.r2dbc.pool.initial-size=0 opens connections on demand, so there is nothing to warm.
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Integer warmed = warmUp().block(timeout);
+            log.info("Warmed up {} database connections in {} ms", warmed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Database warm-up failed, continuing startup", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Holds every connection until all of them are warmed, so the pool hands out a distinct connection each time.
+     */
+    Mono<Integer> warmUp() {
+        if (connections < 1) {
+            return Mono.just(0);
+        }
+        return Mono.usingWhen(Mono.fromSupplier(CopyOnWriteArrayList<Connection>::new),
+                acquired -> Flux.range(0, connections)
+                        .flatMap(i -> connectionFactory.create(), connections)
+                        .doOnNext(acquired::add)
+                        .flatMap(this::prepareStatements)
+                        .then(Mono.fromSupplier(acquired::size)),
+                this::closeAll);
+    }
+
+    /**
+     * Runs the lookups requests use through the repository's own SQL, with values that match no rows.
+     */
+    private Mono<Void> prepareStatements(Connection connection) {
+        SingleConnectionFactory single = new SingleConnectionFactory(connection, connectionFactory.getMetadata(), true);
+        UserRepositoryCustomImpl statements = new UserRepositoryCustomImpl(DatabaseClient.create(single), connectionFactory);
+        return Flux.concat(
+                        statements.findSummaryById(0L),
+                        statements.findSummaryByEmail(""),
+                        statements.findCredentialsByEmail(""),
+                        statements.findSummaryPageAfter(Long.MAX_VALUE, 1))
+                .then();
+    }
+
+    private Mono<Void> closeAll(List<Connection> acquired) {
+        return Flux.fromIterable(acquired)
+                .flatMap(Connection::close)
+                .then();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Opt-in startup check that times one BCrypt hash at increasing strengths on this host and logs the
+ * highest strength that stays within {@code password.bcrypt.calibration.target}. It only reports: the
+ * strength new hashes get is still {@code password.bcrypt.strength}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "password.bcrypt.calibration.enabled", havingValue = "true")
+public class BCryptStrengthCalibrator implements ApplicationRunner {
+
+    static final int MIN_STRENGTH = 4;
+    static final int MAX_STRENGTH = 31;
+
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private final Duration target;
+    private final int configuredStrength;
+
+    public BCryptStrengthCalibrator(@Value("${password.bcrypt.calibration.target}") Duration target,
+                                    @Value("${password.bcrypt.strength}") int configuredStrength) {
+        this.target = target;
+        this.configuredStrength = configuredStrength;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Lets the JIT compile the hashing loop before anything is timed.
+        measureNanos(MIN_STRENGTH);
+
+        int strength = calibrate(target, this::measureNanos);
+        log.info("BCrypt strength {} is the highest within the {} ms target on this host; password.bcrypt.strength is {}",
+                strength, target.toMillis(), configuredStrength);
+    }
+
+    /**
+     * Each extra strength doubles the work, so the search stops at the first strength over the target.
+     * Returns {@link #MIN_STRENGTH} when even that is too slow.
+     */
+    static int calibrate(Duration target, IntToLongFunction measureNanos) {
+        int best = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            long nanos = measureNanos.applyAsLong(strength);
+            log.info("BCrypt strength {} hashes in {} ms", strength, TimeUnit.NANOSECONDS.toMillis(nanos));
+            if (nanos > target.toNanos()) {
+                break;
+            }
+            best = strength;
+        }
+        return best;
+    }
+
+    /**
+     * The median of a few hashes, so a single GC pause or scheduling hiccup does not decide the result.
+     */
+    private long measureNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
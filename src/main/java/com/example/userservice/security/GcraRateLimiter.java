@@ -0,0 +1,139 @@
+package com.example.userservice.security;
+
+import com.example.userservice.commons.Hashing;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key rate limiter using the generic cell rate algorithm, which behaves as a token bucket of
+ * {@code burst} tokens refilled at {@code permitsPerMinute} but keeps a single long per key: its theoretical
+ * arrival time (TAT). A request at {@code now} is allowed while {@code max(TAT, now) - now} is within the
+ * burst tolerance, and moves TAT one emission interval forward.
+ * <p>
+ * Keys live in lock-striped open-addressing tables. A key whose TAT has passed has a full bucket, exactly
+ * like a key never seen, so a full stripe first drops those idle entries. If every entry is still active
+ * the stripe is cleared, which only ever lets those keys through early; evictions count such entries.
+ */
+final class GcraRateLimiter {
+
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier ticker;
+    private final long origin;
+    private final LongAdder evictions = new LongAdder();
+
+    GcraRateLimiter(int permitsPerMinute, int burst, int maxEntries, int concurrency, LongSupplier ticker) {
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstToleranceNanos = (burst - 1) * emissionIntervalNanos;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, maxEntries)));
+        int stripeMaxSize = Math.max(1, (maxEntries + stripeCount - 1) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeMaxSize);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.ticker = ticker;
+        // Keeps every timestamp positive, so a zero TAT can mark an empty slot.
+        this.origin = ticker.getAsLong() - 1;
+    }
+
+    /**
+     * Takes a permit for {@code key} if one is available.
+     *
+     * @return 0 when the request is allowed, otherwise the nanoseconds until it would be
+     */
+    long tryAcquire(long key) {
+        long hash = Hashing.mix64(key);
+        return stripes[(int) (hash >>> 32) & stripeMask].acquire(key, (int) hash, ticker.getAsLong() - origin);
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    private final class Stripe {
+
+        private final int maxSize;
+        private long[] keys;
+        private long[] tats;
+        private int size;
+
+        Stripe(int maxSize) {
+            this.maxSize = maxSize;
+            int capacity = Math.max(MIN_STRIPE_CAPACITY, Integer.highestOneBit(maxSize * 4 / 3 + 1) << 1);
+            this.keys = new long[capacity];
+            this.tats = new long[capacity];
+        }
+
+        synchronized long acquire(long key, int hash, long now) {
+            int slot = find(key, hash);
+            long tat = Math.max(tats[slot], now);
+            long wait = tat - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tats[slot] == 0) {
+                if (size == maxSize) {
+                    compact(now);
+                    slot = find(key, hash);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            tats[slot] = tat + emissionIntervalNanos;
+            return 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Returns the slot holding {@code key}, or the empty slot where it would go.
+         */
+        private int find(long key, int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (tats[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void compact(long now) {
+            long[] oldKeys = keys;
+            long[] oldTats = tats;
+            keys = new long[oldKeys.length];
+            tats = new long[oldTats.length];
+            size = 0;
+            for (int i = 0; i < oldTats.length; i++) {
+                if (oldTats[i] > now) {
+                    int slot = find(oldKeys[i], (int) Hashing.mix64(oldKeys[i]));
+                    keys[slot] = oldKeys[i];
+                    tats[slot] = oldTats[i];
+                    size++;
+                }
+            }
+            if (size == maxSize) {
+                evictions.add(size);
+                Arrays.fill(tats, 0);
+                size = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.VerifiedTokenCache;
+import com.example.userservice.config.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Authenticates requests carrying a {@code Bearer} token issued by {@link JwtUtils}. Tokens seen before
+ * are served from the {@link VerifiedTokenCache}, so only the first request with a given token pays for
+ * signature verification and claims parsing. Requests without a bearer token pass through untouched;
+ * requests with an invalid one are answered with 401.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
+    private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Counter verified;
+    private final Counter cached;
+    private final Counter rejected;
+
+    public JwtAuthenticationWebFilter(JwtUtils jwtUtils, VerifiedTokenCache verifiedTokenCache, MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.verified = verificationCounter(meterRegistry, "verified");
+        this.cached = verificationCounter(meterRegistry, "cached");
+        this.rejected = verificationCounter(meterRegistry, "rejected");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return chain.filter(exchange);
+        }
+
+        Authentication authentication = authenticate(authorization.substring(BEARER_PREFIX.length()).trim());
+        if (authentication == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    private Authentication authenticate(String token) {
+        Authentication authentication = verifiedTokenCache.get(token);
+        if (authentication != null) {
+            cached.increment();
+            return authentication;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtils.verifyToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.increment();
+            return null;
+        }
+        verified.increment();
+
+        authentication = UsernamePasswordAuthenticationToken.authenticated(claims.getSubject(), null, Collections.emptyList());
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verifiedTokenCache.put(token, authentication, expiration.getTime());
+        }
+        return authentication;
+    }
+
+    private static Counter verificationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("jwt.verifications")
+                .description("Bearer tokens checked, by whether the signature was verified, served from cache or rejected")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
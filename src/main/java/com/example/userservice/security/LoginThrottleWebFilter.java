@@ -0,0 +1,152 @@
+package com.example.userservice.security;
+
+import com.example.userservice.commons.BufferedBodyRequest;
+import com.example.userservice.commons.EmailNormalizer;
+import com.example.userservice.commons.Hashing;
+import com.example.userservice.commons.JsonBodyFields;
+import com.example.userservice.config.LoginThrottleProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits login attempts per client address and per email before the request reaches authentication, so
+ * a brute-force burst is answered with 429 instead of costing a lookup and a BCrypt verification each.
+ * The address is checked first, from the connection alone. The email is then read from the buffered
+ * request body, which is handed on unchanged. IPv6 clients are limited per /64, the block a single host
+ * is usually given, in a table of their own so no prefix shares a key with an IPv4 address. Behind a
+ * proxy, set {@code server.forward-headers-strategy} so the remote address is the client's.
+ */
+public class LoginThrottleWebFilter implements WebFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final String EMAIL_FIELD = "email";
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final GcraRateLimiter byAddress;
+    private final GcraRateLimiter byIpv6Prefix;
+    private final GcraRateLimiter byEmail;
+    private final JsonFactory jsonFactory;
+    private final Counter addressAllowed;
+    private final Counter addressRejected;
+    private final Counter emailAllowed;
+    private final Counter emailRejected;
+
+    public LoginThrottleWebFilter(LoginThrottleProperties properties, JsonFactory jsonFactory, MeterRegistry meterRegistry) {
+        this(properties, jsonFactory, meterRegistry, System::nanoTime);
+    }
+
+    LoginThrottleWebFilter(LoginThrottleProperties properties, JsonFactory jsonFactory, MeterRegistry meterRegistry,
+                           LongSupplier ticker) {
+        int concurrency = Runtime.getRuntime().availableProcessors() * 4;
+        this.byAddress = new GcraRateLimiter(properties.getIpPerMinute(), properties.getIpBurst(),
+                properties.getMaxEntries(), concurrency, ticker);
+        this.byIpv6Prefix = new GcraRateLimiter(properties.getIpPerMinute(), properties.getIpBurst(),
+                properties.getMaxEntries(), concurrency, ticker);
+        this.byEmail = new GcraRateLimiter(properties.getEmailPerMinute(), properties.getEmailBurst(),
+                properties.getMaxEntries(), concurrency, ticker);
+        this.jsonFactory = jsonFactory;
+        this.addressAllowed = decisionCounter(meterRegistry, "ip", "allowed");
+        this.addressRejected = decisionCounter(meterRegistry, "ip", "rejected");
+        this.emailAllowed = decisionCounter(meterRegistry, "email", "allowed");
+        this.emailRejected = decisionCounter(meterRegistry, "email", "rejected");
+        registerLimiter(meterRegistry, byAddress, "ip");
+        registerLimiter(meterRegistry, byIpv6Prefix, "ipv6");
+        registerLimiter(meterRegistry, byEmail, "email");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.POST || !LOGIN_PATH.equals(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            InetAddress address = remoteAddress.getAddress();
+            long wait = address instanceof Inet6Address
+                    ? byIpv6Prefix.tryAcquire(leadingBytes(address, Long.BYTES))
+                    : byAddress.tryAcquire(leadingBytes(address, Integer.BYTES));
+            if (wait > 0) {
+                addressRejected.increment();
+                return reject(exchange.getResponse(), wait);
+            }
+            addressAllowed.increment();
+        }
+
+        return BufferedBodyRequest.readBody(request, MAX_BODY_BYTES)
+                .flatMap(body -> {
+                    String email = JsonBodyFields.readString(jsonFactory, body, EMAIL_FIELD);
+                    if (email != null) {
+                        long wait = byEmail.tryAcquire(Hashing.hash64(EmailNormalizer.normalize(email)));
+                        if (wait > 0) {
+                            emailRejected.increment();
+                            return reject(exchange.getResponse(), wait);
+                        }
+                        emailAllowed.increment();
+                    }
+                    return chain.filter(exchange.mutate().request(new BufferedBodyRequest(request, body)).build());
+                })
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    /**
+     * The first {@code count} bytes of the address as a number: all of an IPv4 address, or the /64 prefix
+     * of an IPv6 one.
+     */
+    private static long leadingBytes(InetAddress address, int count) {
+        byte[] bytes = address.getAddress();
+        long key = 0;
+        for (int i = 0; i < count; i++) {
+            key = key << 8 | (bytes[i] & 0xFF);
+        }
+        return key;
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, long waitNanos) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        return response.setComplete();
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String key, String result) {
+        return Counter.builder("login.throttle.decisions")
+                .description("Login attempts checked against the per-address and per-email limits")
+                .tag("key", key)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static void registerLimiter(MeterRegistry meterRegistry, GcraRateLimiter limiter, String key) {
+        Gauge.builder("login.throttle.entries", limiter, GcraRateLimiter::size)
+                .tag("key", key)
+                .register(meterRegistry);
+        FunctionCounter.builder("login.throttle.evictions", limiter, GcraRateLimiter::evictionCount)
+                .description("Active limiter entries dropped because the table was full")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+/**
+ * Username/password authentication that verifies the password on the {@link PasswordHashingExecutor}
+ * rather than on the thread the user lookup completed on. After a successful login, a hash stored with an
+ * outdated algorithm or cost is re-encoded in the background when the hashing queue is empty, so the
+ * upgrade never delays the response or crowds out other logins.
+ */
+@Slf4j
+public class PasswordHashingAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private static final String BAD_CREDENTIALS = "Invalid Credentials";
+
+    private final ReactiveUserDetailsService userDetailsService;
+    private final ReactiveUserDetailsPasswordService userDetailsPasswordService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public PasswordHashingAuthenticationManager(ReactiveUserDetailsService userDetailsService,
+                                                ReactiveUserDetailsPasswordService userDetailsPasswordService,
+                                                PasswordHashingExecutor passwordHashingExecutor) {
+        this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String username = authentication.getName();
+        String presentedPassword = (String) authentication.getCredentials();
+
+        return userDetailsService.findByUsername(username)
+                .flatMap(userDetails -> passwordHashingExecutor.matches(presentedPassword, userDetails.getPassword())
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                return Mono.error(new InvalidCredentialsException());
+                            }
+                            upgradeEncodingInBackground(userDetails, presentedPassword);
+                            return Mono.just(createSuccessAuthentication(userDetails));
+                        }))
+                .switchIfEmpty(Mono.error(InvalidCredentialsException::new));
+    }
+
+    /**
+     * Detached from the login so that neither the extra hash nor the write adds to its latency, and only
+     * hashed while no other hashing call is queued, so upgrades never take queue slots from requests. A
+     * skipped or failed upgrade is harmless: the old hash still matches and the next login tries again.
+     */
+    private void upgradeEncodingInBackground(UserDetails userDetails, String presentedPassword) {
+        if (!passwordHashingExecutor.upgradeEncoding(userDetails.getPassword())) {
+            return;
+        }
+        passwordHashingExecutor.encodeWhenIdle(presentedPassword)
+                .flatMap(newHash -> userDetailsPasswordService.updatePassword(userDetails, newHash))
+                .subscribe(null, e -> log.warn("Could not upgrade a password hash: {}", e.toString()));
+    }
+
+    private Authentication createSuccessAuthentication(UserDetails userDetails) {
+        return UsernamePasswordAuthenticationToken.authenticated(userDetails, userDetails.getPassword(),
+                userDetails.getAuthorities());
+    }
+
+    /**
+     * Failed logins are routine and always end in a plain 401, so the stack trace is never looked at.
+     */
+    private static final class InvalidCredentialsException extends BadCredentialsException {
+
+        InvalidCredentialsException() {
+            super(BAD_CREDENTIALS);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.userservice.security;
+
+import com.example.userservice.exception.ServiceUnavailableException;
+import com.example.userservice.timing.ServerTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.example.userservice.commons.Constants.PASSWORD_HASHING_BUSY;
+
+/**
+ * Runs every {@link PasswordEncoder} call on a dedicated, bounded pool so that BCrypt work never
+ * executes on the WebFlux event loop. When the queue is full, calls fail fast with a
+ * {@link ServiceUnavailableException} instead of queueing without bound.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final String ENCODE = "encode";
+    private static final String MATCHES = "matches";
+    private static final ServiceUnavailableException BUSY = new ServiceUnavailableException(PASSWORD_HASHING_BUSY);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeWaitTimer;
+    private final Timer matchesWaitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${password.hashing.pool-size}") int poolSize,
+                                   @Value("${password.hashing.queue-capacity}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeWaitTimer = waitTimer(meterRegistry, ENCODE);
+        this.matchesWaitTimer = waitTimer(meterRegistry, MATCHES);
+        this.encodeTimer = hashTimer(meterRegistry, ENCODE);
+        this.matchesTimer = hashTimer(meterRegistry, MATCHES);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Hashing calls rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Hashing calls waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing calls currently running")
+                .register(meterRegistry);
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return ServerTiming.time(ServerTiming.Phase.HASH,
+                submit(() -> passwordEncoder.encode(rawPassword), encodeWaitTimer, encodeTimer, false));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return ServerTiming.time(ServerTiming.Phase.HASH,
+                submit(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesWaitTimer, matchesTimer, false));
+    }
+
+    /**
+     * Encodes only when no hashing call is waiting for a worker, for work that can be skipped, such as
+     * upgrading a stored hash; completes empty instead of queueing behind or rejecting requests.
+     */
+    public Mono<String> encodeWhenIdle(CharSequence rawPassword) {
+        return Mono.defer(() -> executor.getQueue().isEmpty()
+                ? submit(() -> passwordEncoder.encode(rawPassword), encodeWaitTimer, encodeTimer, true)
+                : Mono.empty());
+    }
+
+    /**
+     * Whether the hash was produced with a different algorithm or a lower cost than new hashes get. Only
+     * parses the hash, so it runs on the caller's thread.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> Mono<T> submit(Supplier<T> task, Timer waitTimer, Timer hashTimer, boolean skipWhenBusy) {
+        return Mono.create(sink -> {
+            long enqueuedAt = System.nanoTime();
+            Future<?> future;
+            try {
+                future = executor.submit(() -> {
+                    long startedAt = System.nanoTime();
+                    waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        sink.success(task.get());
+                    } catch (Throwable e) {
+                        // Errors such as StackOverflowError must still reach the caller, or its Mono never ends.
+                        sink.error(e);
+                        Exceptions.throwIfJvmFatal(e);
+                    } finally {
+                        hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (skipWhenBusy) {
+                    sink.success();
+                    return;
+                }
+                rejectedCounter.increment();
+                sink.error(BUSY);
+                return;
+            }
+            sink.onCancel(() -> future.cancel(false));
+        });
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing.wait")
+                .description("Time a hashing call spent queued before a worker picked it up")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time spent inside the password encoder")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,22 +1,39 @@
 package com.example.userservice.service;
 
+import com.example.userservice.dto.DeleteUsersResponseDTO;
+import com.example.userservice.dto.UserLookupResultDTO;
+import com.example.userservice.dto.UserPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
-import com.example.userservice.entity.UserEntity;
+import com.example.userservice.entity.UserCredentials;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface UserService {
 
     Mono<UserResponseDTO> createUser(UserRequestDTO userRequestDTO);
 
     Mono<UserResponseDTO> getUserById(Long id);
 
-    Mono<UserEntity> getUserByEmail(String email);
+    Mono<UserResponseDTO> getUserByEmail(String email);
+
+    Mono<UserCredentials> getCredentialsByEmail(String email);
+
+    Mono<Boolean> replacePasswordHash(String email, String currentHash, String newHash);
+
+    Flux<UserLookupResultDTO> getUsersByIds(List<Long> ids);
 
     Flux<UserResponseDTO> getAllUsers();
 
+    Mono<UserPageDTO> getUserPage(String after, int limit);
+
     Mono<UserResponseDTO> updateUser(Long id, UserRequestDTO userRequestDTO);
 
+    Mono<UserResponseDTO> patchUser(Long id, UserRequestDTO userRequestDTO);
+
     Mono<Void> deleteUser(Long id);
+
+    Mono<DeleteUsersResponseDTO> deleteUsers(List<Long> ids);
 }
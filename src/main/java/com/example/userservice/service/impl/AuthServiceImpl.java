@@ -3,6 +3,7 @@ package com.example.userservice.service.impl;
 import com.example.userservice.config.JwtUtils;
 import com.example.userservice.dto.LoginRequest;
 import com.example.userservice.service.AuthService;
+import com.example.userservice.timing.ServerTiming;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,9 +22,10 @@ public class AuthServiceImpl implements AuthService {
     public Mono<String> authenticateUser(LoginRequest loginRequest) {
         return authenticationManager.authenticate(
                         new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()))
-                .map(auth -> {
+                .flatMap(auth -> {
                     UserDetails userDetails = (UserDetails) auth.getPrincipal();
-                    return jwtUtils.generateToken(userDetails.getUsername());
+                    return ServerTiming.time(ServerTiming.Phase.SIGN,
+                            Mono.fromSupplier(() -> jwtUtils.generateToken(userDetails.getUsername())));
                 });
     }
 }
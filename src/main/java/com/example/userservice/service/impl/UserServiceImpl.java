@@ -1,24 +1,48 @@
 package com.example.userservice.service.impl;
 
+import com.example.userservice.cache.EmailExistenceFilter;
+import com.example.userservice.cache.UserCache;
+import com.example.userservice.cache.UserLookupCoalescer;
+import com.example.userservice.commons.CursorCodec;
+import com.example.userservice.commons.EmailNormalizer;
+import com.example.userservice.config.UserApiProperties;
+import com.example.userservice.dto.DeleteUsersResponseDTO;
+import com.example.userservice.dto.UserLookupResultDTO;
+import com.example.userservice.dto.UserPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.entity.UserCredentials;
 import com.example.userservice.entity.UserEntity;
 import com.example.userservice.exception.BadRequestException;
 import com.example.userservice.exception.DataAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.mapper.UserMapper;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.PasswordHashingExecutor;
 import com.example.userservice.service.UserService;
+import com.example.userservice.timing.ServerTiming;
 import com.example.userservice.validation.UserValidator;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.validation.BeanPropertyBindingResult;
-import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
 import static com.example.userservice.commons.Constants.EMAIL_ALREADY_EXISTS;
+import static com.example.userservice.commons.Constants.IDS_REQUIRED;
+import static com.example.userservice.commons.Constants.NO_FIELDS_TO_UPDATE;
+import static com.example.userservice.commons.Constants.PAGE_LIMIT_OUT_OF_RANGE;
+import static com.example.userservice.commons.Constants.TOO_MANY_IDS;
 import static com.example.userservice.commons.Constants.USER_NOT_FOUND_EMAIL;
 import static com.example.userservice.commons.Constants.USER_NOT_FOUND_ID;
 
@@ -27,80 +51,228 @@ import static com.example.userservice.commons.Constants.USER_NOT_FOUND_ID;
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    // Stackless business errors with a fixed message, shared by every request that ends in them.
+    private static final DataAlreadyExistsException EMAIL_TAKEN = new DataAlreadyExistsException(EMAIL_ALREADY_EXISTS);
+    private static final BadRequestException NO_FIELDS = new BadRequestException(NO_FIELDS_TO_UPDATE);
+    private static final BadRequestException NO_IDS = new BadRequestException(IDS_REQUIRED);
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserValidator userValidator;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserCache userCache;
+    private final UserLookupCoalescer userLookupCoalescer;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final UserApiProperties userApiProperties;
 
     @Override
     public Mono<UserResponseDTO> createUser(UserRequestDTO userRequestDTO) {
-        return userRepository.existsByEmail(userRequestDTO.getEmail())
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new DataAlreadyExistsException(EMAIL_ALREADY_EXISTS));
-                    }
-                    return validateUserRequest(userRequestDTO)
-                            .then(createAndSaveUser(userRequestDTO));
-                });
+        return validateUserRequest(userRequestDTO)
+                .then(Mono.defer(() -> createAndSaveUser(userRequestDTO)));
     }
 
     @Override
     public Mono<UserResponseDTO> getUserById(Long id) {
-        return userRepository.findById(id)
-                .map(userMapper::toResponseDto)
-                .switchIfEmpty(Mono.error(new UserNotFoundException(USER_NOT_FOUND_ID + id)));
+        // Coalesced loads are shared between requests, so each request times its wait around the lookup.
+        return Mono.fromSupplier(() -> userCache.getById(id))
+                .switchIfEmpty(ServerTiming.time(ServerTiming.Phase.DB,
+                        userLookupCoalescer.byId(id, () -> {
+                            long generation = userCache.generationOf(id);
+                            return ServerTiming.untimed(userRepository.findSummaryById(id)
+                                    .doOnNext(user -> userCache.putIfUnchanged(user, generation)));
+                        })))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(USER_NOT_FOUND_ID, id)));
+    }
+
+    @Override
+    public Mono<UserResponseDTO> getUserByEmail(String email) {
+        String normalizedEmail = EmailNormalizer.normalize(email);
+        return Mono.fromSupplier(() -> userCache.getByEmail(normalizedEmail))
+                .switchIfEmpty(Mono.defer(() -> emailExistenceFilter.mightContain(normalizedEmail)
+                        ? ServerTiming.time(ServerTiming.Phase.DB,
+                                userLookupCoalescer.byEmail(normalizedEmail, () -> {
+                                    long generation = userCache.generation();
+                                    return ServerTiming.untimed(userRepository.findSummaryByEmail(normalizedEmail)
+                                            .doOnNext(user -> userCache.putIfNothingInvalidated(user, generation)));
+                                }))
+                        : Mono.empty()))
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(USER_NOT_FOUND_EMAIL, email)));
+    }
+
+    @Override
+    public Mono<UserCredentials> getCredentialsByEmail(String email) {
+        // Credential stuffing mostly tries emails that were never registered; those fail without a query.
+        if (!emailExistenceFilter.mightContain(email)) {
+            return Mono.empty();
+        }
+        return userRepository.findCredentialsByEmail(email);
     }
 
     @Override
-    public Mono<UserEntity> getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .switchIfEmpty(Mono.error(new UserNotFoundException(USER_NOT_FOUND_EMAIL + email)));
+    public Mono<Boolean> replacePasswordHash(String email, String currentHash, String newHash) {
+        // The cached DTOs never hold the hash, so nothing needs invalidating.
+        return userRepository.replacePasswordHash(email, currentHash, newHash);
+    }
+
+    @Override
+    public Flux<UserLookupResultDTO> getUsersByIds(List<Long> ids) {
+        return validateIds(ids)
+                .flatMapMany(requestedIds -> Flux.fromIterable(requestedIds)
+                        .buffer(userApiProperties.getBatchChunkSize())
+                        .concatMap(this::lookupChunk));
     }
 
     @Override
     public Flux<UserResponseDTO> getAllUsers() {
-        return userRepository.findAll()
-                .map(userMapper::toResponseDto);
+        return userRepository.findAllSummaries();
+    }
+
+    @Override
+    public Mono<UserPageDTO> getUserPage(String after, int limit) {
+        int maxLimit = userApiProperties.getMaxPageLimit();
+        if (limit < 1 || limit > maxLimit) {
+            return Mono.error(new BadRequestException(String.format(PAGE_LIMIT_OUT_OF_RANGE, maxLimit)));
+        }
+
+        return Mono.fromCallable(() -> after == null ? 0L : CursorCodec.decode(after))
+                // One extra row tells us whether another page exists without a COUNT query.
+                .flatMapMany(afterId -> userRepository.findSummaryPageAfter(afterId, limit + 1))
+                .collectList()
+                .map(users -> toPage(users, limit));
     }
 
     @Override
     public Mono<UserResponseDTO> updateUser(Long id, UserRequestDTO userRequestDTO) {
-        return validateUserRequest(userRequestDTO)
-                .then(userRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new UserNotFoundException(USER_NOT_FOUND_ID + id)))
-                        .flatMap(existingUser -> updateExistingUser(existingUser, userRequestDTO))
-                        .map(userMapper::toResponseDto));
+        return validateUserRequest(userRequestDTO, userValidator::validateForUpdate)
+                .then(Mono.defer(() -> applyUpdate(id, userRequestDTO)));
+    }
+
+    @Override
+    public Mono<UserResponseDTO> patchUser(Long id, UserRequestDTO userRequestDTO) {
+        if (userRequestDTO.getName() == null && userRequestDTO.getEmail() == null && userRequestDTO.getPassword() == null) {
+            return Mono.error(NO_FIELDS);
+        }
+        return validateUserRequest(userRequestDTO, userValidator::validateForPatch)
+                .then(Mono.defer(() -> applyUpdate(id, userRequestDTO)));
     }
 
     @Override
     public Mono<Void> deleteUser(Long id) {
-        return userRepository.existsById(id)
-                .flatMap(exists -> exists
-                        ? userRepository.deleteById(id)
-                        : Mono.error(new UserNotFoundException(USER_NOT_FOUND_ID + id)));
+        return userRepository.deleteUserById(id)
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(USER_NOT_FOUND_ID, id)))
+                .doOnNext(deleted -> {
+                    userCache.invalidate(id);
+                    emailExistenceFilter.recordRemovals(deleted);
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<DeleteUsersResponseDTO> deleteUsers(List<Long> ids) {
+        return validateIds(ids)
+                .map(LinkedHashSet::new)
+                .flatMap(distinctIds -> userRepository.deleteUsersByIds(distinctIds)
+                        .doOnNext(deleted -> {
+                            distinctIds.forEach(userCache::invalidate);
+                            emailExistenceFilter.recordRemovals(deleted);
+                        }))
+                .map(DeleteUsersResponseDTO::new);
     }
 
     private Mono<UserResponseDTO> createAndSaveUser(UserRequestDTO userRequestDTO) {
-        UserEntity userEntity = userMapper.toEntity(userRequestDTO);
-        return userRepository.save(userEntity)
+        return passwordHashingExecutor.encode(userRequestDTO.getPassword())
+                .map(encodedPassword -> userMapper.toEntity(userRequestDTO, encodedPassword))
+                .flatMap(userRepository::insertIfAbsent)
+                .switchIfEmpty(Mono.error(EMAIL_TAKEN))
+                .doOnNext(savedUser -> emailExistenceFilter.add(savedUser.getEmail()))
                 .map(userMapper::toResponseDto)
                 .log();
     }
 
-    private Mono<Void> validateUserRequest(UserRequestDTO userRequestDTO) {
-        Errors errors = new BeanPropertyBindingResult(userRequestDTO, "userRequestDTO");
-        userValidator.validate(userRequestDTO, errors);
+    private Mono<List<Long>> validateIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(NO_IDS);
+        }
+        int maxIds = userApiProperties.getMaxBatchIds();
+        if (ids.size() > maxIds) {
+            return Mono.error(new BadRequestException(String.format(TOO_MANY_IDS, maxIds)));
+        }
+        return Mono.just(ids);
+    }
+
+    /**
+     * Resolves one chunk of a batch lookup with at most one IN query for the ids the cache cannot serve,
+     * then emits a result per requested id in request order.
+     */
+    private Flux<UserLookupResultDTO> lookupChunk(List<Long> chunk) {
+        Map<Long, UserResponseDTO> usersById = new HashMap<>();
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (Long id : chunk) {
+            UserResponseDTO cachedUser = userCache.getById(id);
+            if (cachedUser != null) {
+                usersById.put(id, cachedUser);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        long generation = userCache.generation();
+        Mono<Map<Long, UserResponseDTO>> resolved = missingIds.isEmpty()
+                ? Mono.just(usersById)
+                : userRepository.findSummariesByIds(missingIds)
+                        .doOnNext(user -> userCache.putIfNothingInvalidated(user, generation))
+                        .collect(() -> usersById, (users, user) -> users.put(user.getId(), user));
+
+        return resolved.flatMapIterable(users -> chunk.stream()
+                .map(id -> toLookupResult(id, users.get(id)))
+                .toList());
+    }
+
+    private UserLookupResultDTO toLookupResult(Long id, UserResponseDTO user) {
+        return new UserLookupResultDTO(id, user != null, user);
+    }
 
-        if (errors.hasErrors()) {
-            return Mono.error(new BadRequestException(errors.getFieldErrors()));
+    private UserPageDTO toPage(List<UserResponseDTO> users, int limit) {
+        if (users.size() <= limit) {
+            return new UserPageDTO(users, null);
         }
+        List<UserResponseDTO> page = users.subList(0, limit);
+        return new UserPageDTO(page, CursorCodec.encode(page.get(limit - 1).getId()));
+    }
+
+    private Mono<Void> validateUserRequest(UserRequestDTO userRequestDTO) {
+        return validateUserRequest(userRequestDTO, userValidator::validate);
+    }
+
+    private Mono<Void> validateUserRequest(UserRequestDTO userRequestDTO, Function<UserRequestDTO, List<FieldError>> validation) {
+        return ServerTiming.time(ServerTiming.Phase.VALIDATE, Mono.defer(() -> {
+            List<FieldError> fieldErrors = validation.apply(userRequestDTO);
+            return fieldErrors.isEmpty() ? Mono.empty() : Mono.error(new BadRequestException(fieldErrors));
+        }));
+    }
 
-        return Mono.empty();
+    private Mono<UserResponseDTO> applyUpdate(Long id, UserRequestDTO userRequestDTO) {
+        // Only a newly supplied password is worth a BCrypt round; profile edits go straight to the UPDATE.
+        Mono<UserEntity> changes = userRequestDTO.getPassword() == null
+                ? Mono.just(toUpdatedEntity(id, userRequestDTO, null))
+                : passwordHashingExecutor.encode(userRequestDTO.getPassword())
+                        .map(encodedPassword -> toUpdatedEntity(id, userRequestDTO, encodedPassword));
+
+        return changes
+                .flatMap(userRepository::updateNonNullFields)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(USER_NOT_FOUND_ID, id)))
+                .onErrorMap(DuplicateKeyException.class, e -> EMAIL_TAKEN)
+                .doOnSuccess(updatedUser -> {
+                    userCache.invalidate(id);
+                    if (userRequestDTO.getEmail() != null) {
+                        emailExistenceFilter.add(updatedUser.getEmail());
+                        emailExistenceFilter.recordRemovals(1);
+                    }
+                });
     }
 
-    private Mono<UserEntity> updateExistingUser(UserEntity existingUser, UserRequestDTO newUserData) {
-        existingUser.setName(newUserData.getName());
-        existingUser.setEmail(newUserData.getEmail());
-        existingUser.setPassword(newUserData.getPassword());
-        return userRepository.save(existingUser);
+    private UserEntity toUpdatedEntity(Long id, UserRequestDTO userRequestDTO, String encodedPassword) {
+        return new UserEntity(id, userRequestDTO.getName(), userRequestDTO.getEmail(), encodedPassword);
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.example.userservice.timing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-request time spent in each {@link Phase}, carried in the Reactor {@code Context} by
+ * {@link ServerTimingWebFilter}. The static {@code time} helpers record nothing for requests without one,
+ * so code paths can be instrumented unconditionally; they still defer to read the context, so a publisher
+ * that is subscribed once for several requests only records into the first subscriber's timing.
+ */
+public final class ServerTiming {
+
+    public enum Phase {
+
+        DB("db"),
+        HASH("hash"),
+        SIGN("sign"),
+        VALIDATE("validate"),
+        SERIALIZE("serialize");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length);
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(PHASES.length);
+
+    ServerTiming() {
+    }
+
+    /**
+     * Adds the time from subscription to the result of {@code mono} to {@code phase}. The time is recorded
+     * before the result is passed on, since the rest of the request may complete synchronously from there.
+     */
+    public static <T> Mono<T> time(Phase phase, Mono<T> mono) {
+        return Mono.deferContextual(context -> {
+            ServerTiming timing = context.getOrDefault(ServerTiming.class, null);
+            if (timing == null) {
+                return mono;
+            }
+            long start = System.nanoTime();
+            return mono.doOnSuccess(value -> timing.recordSince(phase, start))
+                    .doOnError(e -> timing.recordSince(phase, start))
+                    .doOnCancel(() -> timing.recordSince(phase, start));
+        });
+    }
+
+    /**
+     * Adds the time from subscription to termination of {@code flux} to {@code phase}.
+     */
+    public static <T> Flux<T> time(Phase phase, Flux<T> flux) {
+        return Flux.deferContextual(context -> {
+            ServerTiming timing = context.getOrDefault(ServerTiming.class, null);
+            if (timing == null) {
+                return flux;
+            }
+            long start = System.nanoTime();
+            return flux.doOnTerminate(() -> timing.recordSince(phase, start))
+                    .doOnCancel(() -> timing.recordSince(phase, start));
+        });
+    }
+
+    /**
+     * Runs {@code mono} without the request's timing, for work shared between requests: a shared
+     * subscription runs in the first subscriber's context, so it would record into that request alone,
+     * on top of the time each request records around it.
+     */
+    public static <T> Mono<T> untimed(Mono<T> mono) {
+        return mono.contextWrite(context -> context.delete(ServerTiming.class));
+    }
+
+    private void recordSince(Phase phase, long startNanos) {
+        record(phase, System.nanoTime() - startNanos);
+    }
+
+    void record(Phase phase, long durationNanos) {
+        nanos.addAndGet(phase.ordinal(), durationNanos);
+        counts.incrementAndGet(phase.ordinal());
+    }
+
+    /**
+     * Formats the recorded phases and the elapsed total as a {@code Server-Timing} header value,
+     * e.g. {@code db;dur=1.204, hash;dur=83.512, total;dur=86.020}.
+     */
+    String toHeaderValue() {
+        StringBuilder value = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            if (counts.get(phase.ordinal()) > 0) {
+                appendMillis(value.append(phase.metricName).append(";dur="), nanos.get(phase.ordinal()));
+                value.append(", ");
+            }
+        }
+        appendMillis(value.append("total;dur="), System.nanoTime() - startNanos);
+        return value.toString();
+    }
+
+    /**
+     * Formats the recorded phases and the elapsed total as {@code name=millis} pairs for a log line.
+     */
+    String toLogFields() {
+        StringBuilder fields = new StringBuilder(96);
+        appendMillis(fields.append("total="), System.nanoTime() - startNanos);
+        for (Phase phase : PHASES) {
+            if (counts.get(phase.ordinal()) > 0) {
+                appendMillis(fields.append(' ').append(phase.metricName).append('='), nanos.get(phase.ordinal()));
+            }
+        }
+        return fields.toString();
+    }
+
+    private static void appendMillis(StringBuilder builder, long durationNanos) {
+        long micros = durationNanos / 1_000;
+        long fraction = micros % 1_000;
+        builder.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            builder.append(fraction < 10 ? "00" : "0");
+        }
+        builder.append(fraction);
+    }
+}
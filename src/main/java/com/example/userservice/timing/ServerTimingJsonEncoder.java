@@ -0,0 +1,55 @@
+package com.example.userservice.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JSON encoder that adds the time spent serializing a response body to the {@code serialize} phase.
+ * Single values and non-streamed collections are encoded before the response is committed, so their
+ * serialization time still makes it into the {@code Server-Timing} header.
+ */
+public class ServerTimingJsonEncoder extends Jackson2JsonEncoder {
+
+    private static final String TIMING_HINT = ServerTiming.class.getName();
+
+    public ServerTimingJsonEncoder(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(ResolvableType actualType, ResolvableType elementType,
+                                              MediaType mediaType, ServerHttpRequest request,
+                                              ServerHttpResponse response) {
+        Map<String, Object> hints = super.getEncodeHints(actualType, elementType, mediaType, request, response);
+        if (response instanceof ServerTimingResponse timedResponse) {
+            hints = new HashMap<>(hints);
+            hints.put(TIMING_HINT, timedResponse.timing());
+        }
+        return hints;
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        ServerTiming timing = hints != null ? (ServerTiming) hints.get(TIMING_HINT) : null;
+        if (timing == null) {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+        long start = System.nanoTime();
+        try {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        } finally {
+            timing.record(ServerTiming.Phase.SERIALIZE, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Attributes every reactive repository call to the {@code db} phase.
+ */
+public class ServerTimingRepositoryInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (result instanceof Mono<?> mono) {
+            return ServerTiming.time(ServerTiming.Phase.DB, mono);
+        }
+        if (result instanceof Flux<?> flux) {
+            return ServerTiming.time(ServerTiming.Phase.DB, flux);
+        }
+        return result;
+    }
+}
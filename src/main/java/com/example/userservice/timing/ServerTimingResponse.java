@@ -0,0 +1,22 @@
+package com.example.userservice.timing;
+
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+
+/**
+ * Response of a timed exchange, giving codecs that only see the response access to the request's
+ * {@link ServerTiming}.
+ */
+class ServerTimingResponse extends ServerHttpResponseDecorator {
+
+    private final ServerTiming timing;
+
+    ServerTimingResponse(ServerHttpResponse delegate, ServerTiming timing) {
+        super(delegate);
+        this.timing = timing;
+    }
+
+    ServerTiming timing() {
+        return timing;
+    }
+}
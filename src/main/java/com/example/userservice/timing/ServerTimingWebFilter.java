@@ -0,0 +1,47 @@
+package com.example.userservice.timing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts a {@link ServerTiming} for every request, reports it in the {@code Server-Timing} response
+ * header and, for a sample of requests, in a log line once the response is complete.
+ */
+@Slf4j
+public class ServerTimingWebFilter implements WebFilter {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final double logSampleRate;
+
+    public ServerTimingWebFilter(double logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerTiming timing = new ServerTiming();
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            response.getHeaders().set(SERVER_TIMING_HEADER, timing.toHeaderValue());
+            return Mono.empty();
+        });
+
+        Mono<Void> result = chain.filter(exchange.mutate().response(new ServerTimingResponse(response, timing)).build())
+                .contextWrite(Context.of(ServerTiming.class, timing));
+        if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            ServerHttpRequest request = exchange.getRequest();
+            result = result.doFinally(signal -> log.info("server-timing method={} path={} status={} {}",
+                    request.getMethod(), request.getPath().value(), response.getStatusCode(), timing.toLogFields()));
+        }
+        return result;
+    }
+}
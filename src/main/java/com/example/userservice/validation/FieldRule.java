@@ -0,0 +1,94 @@
+package com.example.userservice.validation;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.function.Predicate;
+
+/**
+ * The checks for one request field, built once with their limits and final messages, so checking a value
+ * only compares lengths and scans characters. Each copy-on-write step adds one check; the first one a
+ * value fails is reported, in the order required, minimum length, maximum length, format.
+ */
+final class FieldRule {
+
+    private final String field;
+    private final String codePrefix;
+    private final Violation required;
+    private final int minLength;
+    private final Violation tooShort;
+    private final int maxLength;
+    private final Violation tooLong;
+    private final Predicate<String> format;
+    private final Violation invalid;
+
+    private FieldRule(String field, String codePrefix, Violation required, int minLength, Violation tooShort,
+                      int maxLength, Violation tooLong, Predicate<String> format, Violation invalid) {
+        this.field = field;
+        this.codePrefix = codePrefix;
+        this.required = required;
+        this.minLength = minLength;
+        this.tooShort = tooShort;
+        this.maxLength = maxLength;
+        this.tooLong = tooLong;
+        this.format = format;
+        this.invalid = invalid;
+    }
+
+    /**
+     * A field that must not be null, empty or blank. Its violation codes are {@code codePrefix} followed by
+     * {@code .empty}, {@code .short}, {@code .long} or {@code .invalid}.
+     */
+    static FieldRule required(String field, String codePrefix, String message) {
+        return new FieldRule(field, codePrefix, new Violation(codePrefix + ".empty", message),
+                0, null, Integer.MAX_VALUE, null, null, null);
+    }
+
+    /**
+     * @param messageFormat a format with one {@code %d} for the limit
+     */
+    FieldRule minLength(int minLength, String messageFormat) {
+        return new FieldRule(field, codePrefix, required, minLength,
+                new Violation(codePrefix + ".short", String.format(messageFormat, minLength)),
+                maxLength, tooLong, format, invalid);
+    }
+
+    /**
+     * @param messageFormat a format with one {@code %d} for the limit
+     */
+    FieldRule maxLength(int maxLength, String messageFormat) {
+        return new FieldRule(field, codePrefix, required, minLength, tooShort, maxLength,
+                new Violation(codePrefix + ".long", String.format(messageFormat, maxLength)),
+                format, invalid);
+    }
+
+    FieldRule format(Predicate<String> format, String message) {
+        return new FieldRule(field, codePrefix, required, minLength, tooShort, maxLength, tooLong, format,
+                new Violation(codePrefix + ".invalid", message));
+    }
+
+    String field() {
+        return field;
+    }
+
+    /**
+     * Returns the first check the value fails, or {@code null} when it passes them all.
+     */
+    Violation check(String value) {
+        if (StringUtils.isBlank(value)) {
+            return required;
+        }
+        if (value.length() < minLength) {
+            return tooShort;
+        }
+        if (value.length() > maxLength) {
+            return tooLong;
+        }
+        if (format != null && !format.test(value)) {
+            return invalid;
+        }
+        return null;
+    }
+
+    record Violation(String code, String message) {
+    }
+}
@@ -1,21 +1,52 @@
 package com.example.userservice.validation;
 
 import com.example.userservice.dto.UserRequestDTO;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
 import org.springframework.validation.Validator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.example.userservice.commons.Constants.EMAIL_IS_NOT_VALID;
 import static com.example.userservice.commons.Constants.EMAIL_IS_REQUIRED;
+import static com.example.userservice.commons.Constants.EMAIL_MAX_LENGTH;
 import static com.example.userservice.commons.Constants.NAME_IS_REQUIRED;
+import static com.example.userservice.commons.Constants.NAME_MAX_LENGTH;
 import static com.example.userservice.commons.Constants.NAME_MIN_LENGTH;
 import static com.example.userservice.commons.Constants.PASSWORD_IS_REQUIRED;
 import static com.example.userservice.commons.Constants.PASSWORD_MIN_LENGTH;
 
+/**
+ * Validates user requests against field rules built once from the {@code users.validation.*} limits.
+ * A valid request allocates nothing: the error list and its {@link FieldError}s are only created for a
+ * field that fails.
+ */
 @Component
 public class UserValidator implements Validator {
 
+    private static final String OBJECT_NAME = "userRequestDTO";
+
+    private final FieldRule nameRule;
+    private final FieldRule emailRule;
+    private final FieldRule passwordRule;
+
+    public UserValidator(@Value("${users.validation.name.min-length}") int nameMinLength,
+                         @Value("${users.validation.name.max-length}") int nameMaxLength,
+                         @Value("${users.validation.email.max-length}") int emailMaxLength,
+                         @Value("${users.validation.password.min-length}") int passwordMinLength) {
+        this.nameRule = FieldRule.required("name", "user.name", NAME_IS_REQUIRED)
+                .minLength(nameMinLength, NAME_MIN_LENGTH)
+                .maxLength(nameMaxLength, NAME_MAX_LENGTH);
+        this.emailRule = FieldRule.required("email", "user.email", EMAIL_IS_REQUIRED)
+                .maxLength(emailMaxLength, EMAIL_MAX_LENGTH)
+                .format(UserValidator::isEmailFormat, EMAIL_IS_NOT_VALID);
+        this.passwordRule = FieldRule.required("password", "user.password", PASSWORD_IS_REQUIRED)
+                .minLength(passwordMinLength, PASSWORD_MIN_LENGTH);
+    }
+
     @Override
     public boolean supports(Class<?> clazz) {
         return UserRequestDTO.class.equals(clazz);
@@ -23,30 +54,92 @@ public class UserValidator implements Validator {
 
     @Override
     public void validate(Object target, Errors errors) {
-        UserRequestDTO user = (UserRequestDTO) target;
+        for (FieldError error : validate((UserRequestDTO) target)) {
+            errors.rejectValue(error.getField(), error.getCode(), error.getDefaultMessage());
+        }
+    }
 
-        int nameMinLength = 3;
-        int passwordMinLength = 8;
+    /**
+     * Validates a new user: every field is required. Returns an empty list when the request is valid.
+     */
+    public List<FieldError> validate(UserRequestDTO user) {
+        List<FieldError> errors = check(nameRule, user.getName(), List.of());
+        errors = check(emailRule, user.getEmail(), errors);
+        return check(passwordRule, user.getPassword(), errors);
+    }
+
+    /**
+     * Validates a full update: name and email are required, the password only when a new one is supplied.
+     */
+    public List<FieldError> validateForUpdate(UserRequestDTO user) {
+        List<FieldError> errors = check(nameRule, user.getName(), List.of());
+        errors = check(emailRule, user.getEmail(), errors);
+        return user.getPassword() != null ? check(passwordRule, user.getPassword(), errors) : errors;
+    }
 
-        // Validate name
-        if (StringUtils.isBlank(user.getName())) {
-            errors.rejectValue("name", "user.name.empty", NAME_IS_REQUIRED);
-        } else if (user.getName().length() < nameMinLength) {
-            errors.rejectValue("name", "user.name.short", String.format(NAME_MIN_LENGTH, nameMinLength));
+    /**
+     * Validates a partial update: only the supplied fields are checked.
+     */
+    public List<FieldError> validateForPatch(UserRequestDTO user) {
+        List<FieldError> errors = List.of();
+        if (user.getName() != null) {
+            errors = check(nameRule, user.getName(), errors);
         }
+        if (user.getEmail() != null) {
+            errors = check(emailRule, user.getEmail(), errors);
+        }
+        if (user.getPassword() != null) {
+            errors = check(passwordRule, user.getPassword(), errors);
+        }
+        return errors;
+    }
 
-        // Validate email
-        if (StringUtils.isBlank(user.getEmail())) {
-            errors.rejectValue("email", "user.email.empty", EMAIL_IS_REQUIRED);
-        } else if (!user.getEmail().matches("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")) {
-            errors.rejectValue("email", "user.email.invalid", EMAIL_IS_NOT_VALID);
+    /**
+     * Single-pass equivalent of {@code ^[\w-.]+@([\w-]+\.)+[\w-]{2,4}$}: a local part of word characters,
+     * hyphens and dots, then at least two non-empty domain labels of word characters and hyphens, the last
+     * of them 2 to 4 characters long.
+     */
+    static boolean isEmailFormat(String email) {
+        int length = email.length();
+        int i = 0;
+        while (i < length && (isLabelChar(email.charAt(i)) || email.charAt(i) == '.')) {
+            i++;
         }
+        if (i == 0 || i == length || email.charAt(i) != '@') {
+            return false;
+        }
+
+        int dots = 0;
+        int labelLength = 0;
+        for (i++; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return false;
+                }
+                dots++;
+                labelLength = 0;
+            } else if (isLabelChar(c)) {
+                labelLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots > 0 && labelLength >= 2 && labelLength <= 4;
+    }
+
+    private static boolean isLabelChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
 
-        // Validate password
-        if (StringUtils.isBlank(user.getPassword())) {
-            errors.rejectValue("password", "user.password.empty", PASSWORD_IS_REQUIRED);
-        } else if (user.getPassword().length() < passwordMinLength) {
-            errors.rejectValue("password", "user.password.short", String.format(PASSWORD_MIN_LENGTH, passwordMinLength));
+    private static List<FieldError> check(FieldRule rule, String value, List<FieldError> errors) {
+        FieldRule.Violation violation = rule.check(value);
+        if (violation == null) {
+            return errors;
         }
+        List<FieldError> failed = errors.isEmpty() ? new ArrayList<>(3) : errors;
+        failed.add(new FieldError(OBJECT_NAME, rule.field(), value, false, new String[]{violation.code()}, null,
+                violation.message()));
+        return failed;
     }
 }
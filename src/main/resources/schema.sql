@@ -2,5 +2,17 @@ CREATE TABLE IF NOT EXISTS users (
     id SERIAL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE,
+    email_normalized VARCHAR(255) NOT NULL,
     password VARCHAR(255) NOT NULL
-);
\ No newline at end of file
+);
+
+-- Tables created before email_normalized existed get the column and are backfilled from email
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_normalized VARCHAR(255);
+UPDATE users SET email_normalized = LOWER(TRIM(email)) WHERE email_normalized IS NULL;
+ALTER TABLE users ALTER COLUMN email_normalized SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_normalized_key ON users (email_normalized);
+
+-- Every insert and email change takes the next email version, so readers can pick up changed emails by version
+CREATE SEQUENCE IF NOT EXISTS users_email_version_seq;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_version BIGINT;
+CREATE INDEX IF NOT EXISTS users_email_version_idx ON users (email_version);
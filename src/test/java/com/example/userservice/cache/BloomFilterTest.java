@@ -0,0 +1,51 @@
+package com.example.userservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_ShouldReportEveryAddedKey() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        assertEquals(7, filter.hashFunctions());
+    }
+
+    @Test
+    void mightContain_ShouldStayNearTargetFalsePositiveRate_WhenFull() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("unknown" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertTrue(filter.falsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void put_ShouldNotCountKeyTwice() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        filter.put("john.doe@example.com");
+        filter.put("john.doe@example.com");
+
+        assertEquals(1, filter.insertions());
+    }
+}
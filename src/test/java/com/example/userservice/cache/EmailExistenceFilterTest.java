@@ -0,0 +1,90 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.entity.UserEmailKey;
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailExistenceFilterTest {
+
+    private static final Duration COMMIT_GRACE = Duration.ofSeconds(10);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong ticker = new AtomicLong();
+    private final EmailExistenceFilter filter = new EmailExistenceFilter(userRepository, meterRegistry, true,
+            1_000, 0.01, Duration.ofSeconds(2), Duration.ofMinutes(15), COMMIT_GRACE, ticker::get);
+
+    @Test
+    void mightContain_ShouldReportEveryEmail_UntilAScanOneCommitGraceAfterTheFirst() {
+        assertTrue(filter.mightContain("unknown@example.com"));
+
+        when(userRepository.findEmailKeys()).thenReturn(Flux.just(new UserEmailKey(5, "john.doe@example.com")));
+        StepVerifier.create(filter.refresh()).verifyComplete();
+
+        assertTrue(filter.mightContain("unknown@example.com"));
+    }
+
+    @Test
+    void refresh_ShouldRuleOutOthersInAnyCasing_OnceComplete() {
+        buildComplete();
+
+        assertTrue(filter.mightContain("John.Doe@example.com"));
+        assertFalse(filter.mightContain("unknown@example.com"));
+        assertEquals(1.0, meterRegistry.get("email.filter.checks").tag("result", "absent").functionCounter().count());
+        assertEquals(2, meterRegistry.get("email.filter.rebuild").timer().count());
+    }
+
+    @Test
+    void refresh_ShouldPickUpEmailChangedElsewhere_OnAnExistingUser() {
+        buildComplete();
+
+        when(userRepository.findEmailKeysChangedAfter(5)).thenReturn(Flux.just(new UserEmailKey(9, "jane.doe@example.com")));
+        StepVerifier.create(filter.refresh()).verifyComplete();
+
+        assertTrue(filter.mightContain("jane.doe@example.com"));
+        assertEquals(2, meterRegistry.get("email.filter.rebuild").timer().count());
+    }
+
+    @Test
+    void refresh_ShouldPickUpLowerVersionCommittedLate_WithinCommitGrace() {
+        buildComplete();
+
+        when(userRepository.findEmailKeysChangedAfter(5)).thenReturn(Flux.just(new UserEmailKey(7, "jane.doe@example.com")));
+        StepVerifier.create(filter.refresh()).verifyComplete();
+
+        ticker.addAndGet(Duration.ofSeconds(2).toNanos());
+        when(userRepository.findEmailKeysChangedAfter(5)).thenReturn(Flux.just(
+                new UserEmailKey(6, "late@example.com"), new UserEmailKey(7, "jane.doe@example.com")));
+        StepVerifier.create(filter.refresh()).verifyComplete();
+
+        assertTrue(filter.mightContain("late@example.com"));
+
+        ticker.addAndGet(COMMIT_GRACE.toNanos());
+        when(userRepository.findEmailKeysChangedAfter(5)).thenReturn(Flux.empty());
+        StepVerifier.create(filter.refresh()).verifyComplete();
+        when(userRepository.findEmailKeysChangedAfter(7)).thenReturn(Flux.empty());
+        StepVerifier.create(filter.refresh()).verifyComplete();
+
+        verify(userRepository).findEmailKeysChangedAfter(7);
+    }
+
+    private void buildComplete() {
+        when(userRepository.findEmailKeys()).thenReturn(Flux.just(new UserEmailKey(5, "john.doe@example.com")));
+        StepVerifier.create(filter.refresh()).verifyComplete();
+        ticker.addAndGet(COMMIT_GRACE.toNanos());
+        StepVerifier.create(filter.refresh()).verifyComplete();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.userservice.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ShouldShareOneLoad_BetweenConcurrentCallers() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> result = Sinks.one();
+
+        Mono<String> first = singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            return result.asMono();
+        });
+        Mono<String> second = singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            return Mono.just("unexpected");
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue("john"))
+                .assertNext(pair -> {
+                    assertEquals("john", pair.getT1());
+                    assertEquals("john", pair.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.executedCount());
+        assertEquals(1, singleFlight.coalescedCount());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_ShouldLoadAgain_OnceThePreviousLoadHasCompleted() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(singleFlight.execute(1L, () -> Mono.fromSupplier(() -> "john" + loads.incrementAndGet())))
+                    .expectNext("john" + (i + 1))
+                    .verifyComplete();
+        }
+
+        assertEquals(3, singleFlight.executedCount());
+        assertEquals(0, singleFlight.coalescedCount());
+    }
+
+    @Test
+    void execute_ShouldReleaseKey_WhenLoadFails() {
+        StepVerifier.create(singleFlight.execute(1L, () -> Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(0, singleFlight.inFlightCount());
+        StepVerifier.create(singleFlight.execute(1L, () -> Mono.just("john")))
+                .expectNext("john")
+                .verifyComplete();
+    }
+}
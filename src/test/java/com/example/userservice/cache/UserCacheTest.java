@@ -0,0 +1,112 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.dto.UserResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void getByIdAndEmail_ShouldReturnCachedUser_AfterPut() {
+        UserCache userCache = new UserCache(meterRegistry, 100, Duration.ofMinutes(1), clock::get);
+        UserResponseDTO user = user(1L, "john.doe@example.com");
+
+        userCache.put(user);
+
+        assertSame(user, userCache.getById(1L));
+        assertSame(user, userCache.getByEmail("john.doe@example.com"));
+        assertNull(userCache.getById(2L));
+        assertEquals(2.0, meterRegistry.get("user.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("user.cache.requests").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void getByEmail_ShouldIgnoreCase() {
+        UserCache userCache = new UserCache(meterRegistry, 100, Duration.ofMinutes(1), clock::get);
+        UserResponseDTO user = user(1L, "John.Doe@example.com");
+
+        userCache.put(user);
+
+        assertSame(user, userCache.getByEmail("john.doe@EXAMPLE.com"));
+    }
+
+    @Test
+    void invalidate_ShouldRemoveUserFromBothIndexes() {
+        UserCache userCache = new UserCache(meterRegistry, 100, Duration.ofMinutes(1), clock::get);
+        userCache.put(user(1L, "john.doe@example.com"));
+
+        userCache.invalidate(1L);
+
+        assertNull(userCache.getById(1L));
+        assertNull(userCache.getByEmail("john.doe@example.com"));
+    }
+
+    @Test
+    void putIfUnchanged_ShouldSkipLoadedUser_WhenIdWasInvalidatedDuringLoad() {
+        UserCache userCache = new UserCache(meterRegistry, 100, Duration.ofMinutes(1), clock::get);
+        long generationOfFirst = userCache.generationOf(1L);
+        long generationOfSecond = userCache.generationOf(2L);
+
+        userCache.invalidate(1L);
+        userCache.putIfUnchanged(user(1L, "john.doe@example.com"), generationOfFirst);
+        userCache.putIfUnchanged(user(2L, "jane.doe@example.com"), generationOfSecond);
+
+        assertNull(userCache.getById(1L));
+        assertNull(userCache.getByEmail("john.doe@example.com"));
+        assertEquals(2L, userCache.getById(2L).getId());
+    }
+
+    @Test
+    void putIfNothingInvalidated_ShouldSkipLoadedUser_WhenAnyUserWasInvalidatedDuringLoad() {
+        UserCache userCache = new UserCache(meterRegistry, 100, Duration.ofMinutes(1), clock::get);
+        long generation = userCache.generation();
+
+        userCache.putIfNothingInvalidated(user(1L, "john.doe@example.com"), generation);
+        userCache.invalidate(2L);
+        userCache.putIfNothingInvalidated(user(3L, "jane.doe@example.com"), generation);
+
+        assertEquals(1L, userCache.getById(1L).getId());
+        assertNull(userCache.getByEmail("jane.doe@example.com"));
+    }
+
+    @Test
+    void getById_ShouldMiss_WhenEntryHasExpired() {
+        UserCache userCache = new UserCache(meterRegistry, 100, Duration.ofSeconds(10), clock::get);
+        userCache.put(user(1L, "john.doe@example.com"));
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertNull(userCache.getById(1L));
+        assertNull(userCache.getByEmail("john.doe@example.com"));
+        assertEquals(1.0, meterRegistry.get("user.cache.evictions").functionCounter().count());
+    }
+
+    @Test
+    void put_ShouldEvictEntries_WhenMaxSizeIsReached() {
+        UserCache userCache = new UserCache(meterRegistry, 64, Duration.ofMinutes(1), clock::get);
+
+        for (long id = 1; id <= 1_000; id++) {
+            userCache.put(user(id, "user" + id + "@example.com"));
+        }
+
+        double size = meterRegistry.get("user.cache.size").gauge().value();
+        assertTrue(size <= 64);
+        assertEquals(1_000 - size, meterRegistry.get("user.cache.evictions").functionCounter().count());
+        assertEquals(1_000L, userCache.getById(1_000L).getId());
+    }
+
+    private static UserResponseDTO user(Long id, String email) {
+        return new UserResponseDTO(id, "John Doe", email);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.userservice.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JwtUtilsTest {
+
+    private static final long NOW = 1_700_000_000_123L;
+    private static final long EXPIRATION = 3_600_000L;
+
+    private static final String[] SUBJECTS = {
+            "john.doe@example.com", " padded ", "", "   ", "q\"\\/\b\t\n\f\r\u0001\u001f\u007f é€😀</"
+    };
+
+    @ParameterizedTest
+    @ValueSource(ints = {32, 48, 64})
+    void generateToken_ShouldMatchJjwtBuilderByteForByte(int keyLength) {
+        byte[] keyBytes = new byte[keyLength];
+        for (int i = 0; i < keyLength; i++) {
+            keyBytes[i] = (byte) (i * 31 + 7);
+        }
+        SecretKey secretKey = Keys.hmacShaKeyFor(keyBytes);
+        JwtUtils jwtUtils = new JwtUtils(Encoders.BASE64.encode(keyBytes));
+        ReflectionTestUtils.setField(jwtUtils, "expiration", EXPIRATION);
+
+        for (String subject : SUBJECTS) {
+            String expected = Jwts.builder()
+                    .subject(subject)
+                    .issuedAt(new Date(NOW))
+                    .expiration(new Date(NOW + EXPIRATION))
+                    .signWith(secretKey)
+                    .compact();
+
+            assertEquals(expected, jwtUtils.generateToken(subject, NOW));
+        }
+        assertEquals("john.doe@example.com", jwtUtils.verifyToken(jwtUtils.generateToken("john.doe@example.com")).getSubject());
+    }
+}
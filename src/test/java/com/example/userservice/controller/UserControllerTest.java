@@ -0,0 +1,110 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.exception.ErrorResponseWriter;
+import com.example.userservice.exception.GlobalExceptionHandler;
+import com.example.userservice.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.userservice.commons.Constants.PAGE_LIMIT_REQUIRED;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    private WebTestClient webTestClient;
+
+    private UserResponseDTO john;
+    private UserResponseDTO jane;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        webTestClient = WebTestClient.bindToController(new UserController(userService)).build();
+
+        john = new UserResponseDTO(1L, "John Doe", "john.doe@example.com");
+        jane = new UserResponseDTO(2L, "Jane Doe", "jane.doe@example.com");
+    }
+
+    @Test
+    void getAllUsers_ShouldStreamJsonArray_WhenUsersExist() {
+        when(userService.getAllUsers()).thenReturn(Flux.just(john, jane));
+
+        webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(UserResponseDTO.class)
+                .contains(john, jane)
+                .hasSize(2);
+    }
+
+    @Test
+    void getAllUsers_ShouldStreamNdjson_WhenRequested() {
+        when(userService.getAllUsers()).thenReturn(Flux.just(john, jane));
+
+        webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo("{\"id\":1,\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"}\n"
+                        + "{\"id\":2,\"name\":\"Jane Doe\",\"email\":\"jane.doe@example.com\"}\n");
+    }
+
+    @Test
+    void getAllUsers_ShouldReturnNoContent_WhenThereAreNoUsers() {
+        when(userService.getAllUsers()).thenReturn(Flux.empty());
+
+        webTestClient.get().uri("/api/users")
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getUserPage_ShouldRejectCursorWithoutLimit_InsteadOfListingAllUsers() {
+        WebTestClient client = WebTestClient.bindToController(new UserController(userService))
+                .controllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry(), new ErrorResponseWriter()))
+                .build();
+
+        client.get().uri("/api/users?after=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo(PAGE_LIMIT_REQUIRED);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getAllUsers_ShouldCancelQuery_WhenResponseCommitsWithoutItsBody() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(userService.getAllUsers()).thenReturn(Flux.concat(Flux.just(john), Flux.<UserResponseDTO>never())
+                .doOnCancel(() -> cancelled.set(true)));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+
+        StepVerifier.create(new UserController(userService).getAllUsers(exchange))
+                .expectNextMatches(response -> response.getStatusCode().is2xxSuccessful())
+                .verifyComplete();
+        StepVerifier.create(exchange.getResponse().setComplete()).verifyComplete();
+
+        assertTrue(cancelled.get());
+    }
+}
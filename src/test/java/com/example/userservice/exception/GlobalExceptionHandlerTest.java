@@ -0,0 +1,76 @@
+package com.example.userservice.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static com.example.userservice.commons.Constants.USER_NOT_FOUND_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void handleBusinessException_ShouldWriteStatusAndErrorBody() throws Exception {
+        WebTestClient webTestClient = WebTestClient.bindToController(new FailingController())
+                .controllerAdvice(new GlobalExceptionHandler(meterRegistry, new ErrorResponseWriter()))
+                .build();
+
+        byte[] body = webTestClient.get().uri("/users/42")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().returnResult().getResponseBody();
+
+        JsonNode json = objectMapper.readTree(body);
+        assertEquals(USER_NOT_FOUND_ID + 42, json.get("message").asText());
+        assertEquals("/users/42", json.get("details").asText());
+        assertEquals(1.0, meterRegistry.get("user.service.exceptions")
+                .tag("exception", "UserNotFoundException").tag("status", "404").counter().count());
+    }
+
+    @Test
+    void encode_ShouldEscapeMessageAndFormatTimestamp() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2024-05-01T10:15:30.123Z"), ZoneOffset.UTC);
+        ErrorResponseWriter writer = new ErrorResponseWriter(clock);
+
+        DataBuffer buffer = writer.encode(DefaultDataBufferFactory.sharedInstance,
+                new BadRequestException("Bad \"name\"\n\u0001 ünïcode"), "/api/users");
+
+        String body = buffer.toString(StandardCharsets.UTF_8);
+        assertEquals("{\"timestamp\":\"2024-05-01T10:15:30.123\",\"message\":\"Bad \\\"name\\\"\\u000a\\u0001 ünïcode\","
+                + "\"details\":\"/api/users\"}", body);
+        assertEquals("Bad \"name\"\n\u0001 ünïcode", objectMapper.readTree(body).get("message").asText());
+    }
+
+    @Test
+    void businessExceptions_ShouldNotCaptureStackTraces() {
+        assertEquals(0, new UserNotFoundException(USER_NOT_FOUND_ID, 1L).getStackTrace().length);
+        assertEquals(0, new DataAlreadyExistsException("taken").getStackTrace().length);
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/users/{id}")
+        Mono<String> getUser(@PathVariable Long id) {
+            return Mono.error(new UserNotFoundException(USER_NOT_FOUND_ID, id));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.userservice.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AimdLimitTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldRefuse_WhenLimitIsReached() {
+        AimdLimit limit = new AimdLimit(2, 1, 10, 0.5, THRESHOLD, clock::get);
+
+        assertEquals(1, limit.tryAcquire());
+        assertEquals(2, limit.tryAcquire());
+        assertEquals(0, limit.tryAcquire());
+        assertEquals(2, limit.inFlight());
+
+        limit.release();
+        assertEquals(2, limit.tryAcquire());
+    }
+
+    @Test
+    void release_ShouldGrowLimitByAboutOnePerRound_WhenFastAndBusy() {
+        AimdLimit limit = new AimdLimit(4, 1, 10, 0.5, THRESHOLD, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(THRESHOLD / 2, false, 4);
+        }
+
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void release_ShouldNotGrowLimit_WhenMostlyIdle() {
+        AimdLimit limit = new AimdLimit(4, 1, 10, 0.5, THRESHOLD, clock::get);
+
+        for (int i = 0; i < 20; i++) {
+            limit.release(THRESHOLD / 2, false, limit.tryAcquire());
+        }
+
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void release_ShouldBackOffOncePerThreshold_WhenSlowOrDropped() {
+        AimdLimit limit = new AimdLimit(8, 1, 10, 0.5, THRESHOLD, clock::get);
+
+        limit.release(THRESHOLD * 2, false, 8);
+        limit.release(THRESHOLD * 2, false, 8);
+        assertEquals(4, limit.limit());
+
+        clock.addAndGet(THRESHOLD);
+        limit.release(0, true, 4);
+        assertEquals(2, limit.limit());
+    }
+}
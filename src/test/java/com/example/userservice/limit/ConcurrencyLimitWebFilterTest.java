@@ -0,0 +1,107 @@
+package com.example.userservice.limit;
+
+import com.example.userservice.limit.ConcurrencyLimitWebFilter.AimdSettings;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitWebFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitWebFilter filter = new ConcurrencyLimitWebFilter(
+            new AimdSettings(1, 1, 4, Duration.ofSeconds(1)),
+            new AimdSettings(2, 1, 4, Duration.ofSeconds(1)),
+            0.5, new JsonFactory(), meterRegistry);
+
+    @Test
+    void filter_ShouldShedAuthRequests_WhileAuthGroupIsAtItsLimit() {
+        Sinks.Empty<Void> inFlight = Sinks.empty();
+        filter.filter(exchange(MockServerHttpRequest.post("/api/auth/login")), ex -> inFlight.asMono()).subscribe();
+
+        MockServerWebExchange shed = exchange(MockServerHttpRequest.post("/api/auth/register"));
+        StepVerifier.create(filter.filter(shed, ex -> Mono.empty())).verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("concurrency.in.flight").tag("group", "auth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("concurrency.rejected").tag("group", "auth").counter().count());
+
+        MockServerWebExchange read = exchange(MockServerHttpRequest.get("/api/users/1"));
+        StepVerifier.create(filter.filter(read, ex -> Mono.empty())).verifyComplete();
+        assertNull(read.getResponse().getStatusCode());
+
+        inFlight.tryEmitEmpty();
+        assertEquals(0.0, meterRegistry.get("concurrency.in.flight").tag("group", "auth").gauge().value());
+    }
+
+    @Test
+    void filter_ShouldNotLimitWrites() {
+        Sinks.Empty<Void> inFlight = Sinks.empty();
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange(MockServerHttpRequest.delete("/api/users/" + i)), ex -> inFlight.asMono()).subscribe();
+        }
+
+        assertEquals(0.0, meterRegistry.get("concurrency.in.flight").tag("group", "read").gauge().value());
+        inFlight.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldLimitUserCreationAndPasswordUpdates_AsAuth() {
+        Sinks.Empty<Void> inFlight = Sinks.empty();
+        filter.filter(exchange(MockServerHttpRequest.post("/api/users")), ex -> inFlight.asMono()).subscribe();
+
+        MockServerWebExchange passwordUpdate = exchange(MockServerHttpRequest.put("/api/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"name\":\"John Doe\",\"password\":\"password123\"}"));
+        StepVerifier.create(filter.filter(passwordUpdate, ex -> Mono.empty())).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, passwordUpdate.getResponse().getStatusCode());
+
+        AtomicReference<String> forwardedBody = new AtomicReference<>();
+        MockServerWebExchange nameUpdate = exchange(MockServerHttpRequest.patch("/api/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"name\":\"John Doe\",\"password\":null}"));
+        StepVerifier.create(filter.filter(nameUpdate, ex -> DataBufferUtils.join(ex.getRequest().getBody())
+                        .doOnNext(body -> forwardedBody.set(body.toString(StandardCharsets.UTF_8)))
+                        .then()))
+                .verifyComplete();
+        assertNull(nameUpdate.getResponse().getStatusCode());
+        assertEquals("{\"name\":\"John Doe\",\"password\":null}", forwardedBody.get());
+
+        assertEquals(1.0, meterRegistry.get("concurrency.rejected").tag("group", "auth").counter().count());
+        inFlight.tryEmitEmpty();
+    }
+
+    @Test
+    void filter_ShouldLimitBatchGets_AsReads() {
+        Sinks.Empty<Void> inFlight = Sinks.empty();
+        filter.filter(exchange(MockServerHttpRequest.post("/api/users/batch-get")), ex -> inFlight.asMono()).subscribe();
+
+        assertEquals(1.0, meterRegistry.get("concurrency.in.flight").tag("group", "read").gauge().value());
+        assertEquals(0.0, meterRegistry.get("concurrency.in.flight").tag("group", "auth").gauge().value());
+        inFlight.tryEmitEmpty();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request.build());
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+        return MockServerWebExchange.from(request);
+    }
+}
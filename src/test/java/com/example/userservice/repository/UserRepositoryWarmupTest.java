@@ -0,0 +1,63 @@
+package com.example.userservice.repository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserRepositoryWarmupTest {
+
+    private ConnectionPool connectionPool;
+
+    @BeforeEach
+    void setUp() {
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get("r2dbc:h2:mem:///warmup-test"))
+                .initialSize(0)
+                .maxSize(4)
+                .build());
+        Mono.usingWhen(connectionPool.create(),
+                        connection -> Mono.from(connection.createStatement("CREATE TABLE IF NOT EXISTS users "
+                                + "(id SERIAL PRIMARY KEY, name VARCHAR(255), email VARCHAR(255), email_normalized VARCHAR(255), "
+                                + "password VARCHAR(255))")
+                                .execute()),
+                        connection -> connection.close())
+                .block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionPool.dispose();
+    }
+
+    @Test
+    void warmUp_ShouldOpenDistinctConnections_AndReleaseThemAll() {
+        UserRepositoryWarmup warmup = new UserRepositoryWarmup(connectionPool, 3, Duration.ofSeconds(10));
+
+        StepVerifier.create(warmup.warmUp())
+                .expectNext(3)
+                .verifyComplete();
+
+        assertEquals(3, connectionPool.getMetrics().orElseThrow().allocatedSize());
+        assertEquals(0, connectionPool.getMetrics().orElseThrow().acquiredSize());
+    }
+
+    @Test
+    void warmUp_ShouldOpenNothing_WhenPoolHasNoInitialConnections() {
+        UserRepositoryWarmup warmup = new UserRepositoryWarmup(connectionPool, 0, Duration.ofSeconds(10));
+
+        StepVerifier.create(warmup.warmUp())
+                .expectNext(0)
+                .verifyComplete();
+
+        assertEquals(1, connectionPool.getMetrics().orElseThrow().allocatedSize());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void calibrate_ShouldPickHighestStrengthWithinTarget() {
+        // 1 ms at strength 4, doubling with each step: strength 11 takes 128 ms and 12 takes 256 ms.
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(250),
+                s -> TimeUnit.MILLISECONDS.toNanos(1L << (s - BCryptStrengthCalibrator.MIN_STRENGTH)));
+
+        assertEquals(11, strength);
+    }
+
+    @Test
+    void calibrate_ShouldReturnMinimum_WhenEvenThatIsTooSlow() {
+        int strength = BCryptStrengthCalibrator.calibrate(Duration.ofMillis(1), s -> TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(BCryptStrengthCalibrator.MIN_STRENGTH, strength);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GcraRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldAllowBurst_ThenRejectUntilAPermitRefills() {
+        GcraRateLimiter limiter = new GcraRateLimiter(60, 3, 100, 4, clock::get);
+
+        assertEquals(0, limiter.tryAcquire(1));
+        assertEquals(0, limiter.tryAcquire(1));
+        assertEquals(0, limiter.tryAcquire(1));
+        long wait = limiter.tryAcquire(1);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+        assertEquals(0, limiter.tryAcquire(2));
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire(1));
+        assertTrue(limiter.tryAcquire(1) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldDropIdleEntries_WhenTableIsFull() {
+        GcraRateLimiter limiter = new GcraRateLimiter(60, 1, 64, 4, clock::get);
+        for (long key = 0; key < 1_000; key++) {
+            assertEquals(0, limiter.tryAcquire(key));
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertTrue(limiter.size() <= 64);
+        assertEquals(0, limiter.evictionCount());
+    }
+
+    @Test
+    void tryAcquire_ShouldEvictActiveEntries_OnlyWhenTheyFillTheTable() {
+        GcraRateLimiter limiter = new GcraRateLimiter(60, 1, 64, 1, clock::get);
+        for (long key = 0; key < 65; key++) {
+            assertEquals(0, limiter.tryAcquire(key));
+        }
+
+        assertEquals(64, limiter.evictionCount());
+        assertEquals(1, limiter.size());
+    }
+}
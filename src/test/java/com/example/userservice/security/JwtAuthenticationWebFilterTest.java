@@ -0,0 +1,89 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.VerifiedTokenCache;
+import com.example.userservice.config.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtAuthenticationWebFilterTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtMDEyMzQ1Njc4OWFiY2RlZg==";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicReference<String> authenticatedName = new AtomicReference<>();
+    private final WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .map(Authentication::getName)
+            .doOnNext(authenticatedName::set)
+            .then();
+
+    private JwtUtils jwtUtils;
+    private JwtAuthenticationWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils(SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 60_000L);
+        filter = new JwtAuthenticationWebFilter(jwtUtils, new VerifiedTokenCache(meterRegistry, 100, 60_000L), meterRegistry);
+    }
+
+    @Test
+    void filter_ShouldAuthenticate_AndServeRepeatedTokenFromCache() {
+        String token = jwtUtils.generateToken("john.doe@example.com");
+
+        StepVerifier.create(filter.filter(exchangeWithToken(token), chain)).verifyComplete();
+        assertEquals("john.doe@example.com", authenticatedName.get());
+
+        authenticatedName.set(null);
+        StepVerifier.create(filter.filter(exchangeWithToken(token), chain)).verifyComplete();
+        assertEquals("john.doe@example.com", authenticatedName.get());
+
+        assertEquals(1.0, meterRegistry.get("jwt.verifications").tag("result", "verified").counter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.verifications").tag("result", "cached").counter().count());
+    }
+
+    @Test
+    void filter_ShouldRejectTamperedToken() {
+        String token = jwtUtils.generateToken("john.doe@example.com");
+        MockServerWebExchange exchange = exchangeWithToken(token.substring(0, token.length() - 2) + "xx");
+
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(authenticatedName.get());
+        assertEquals(1.0, meterRegistry.get("jwt.verifications").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void filter_ShouldPassThrough_WhenNoBearerTokenIsPresent() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/current"));
+
+        StepVerifier.create(filter.filter(exchange, ex -> Mono.fromRunnable(() -> authenticatedName.set("anonymous"))))
+                .verifyComplete();
+
+        assertEquals("anonymous", authenticatedName.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange exchangeWithToken(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/users/current")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
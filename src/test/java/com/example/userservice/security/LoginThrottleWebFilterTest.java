@@ -0,0 +1,112 @@
+package com.example.userservice.security;
+
+import com.example.userservice.config.LoginThrottleProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoginThrottleWebFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> forwardedBodies = new ArrayList<>();
+    private final WebFilterChain chain = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+            .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+            .doOnNext(forwardedBodies::add)
+            .then();
+
+    private LoginThrottleWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        ReflectionTestUtils.setField(properties, "ipPerMinute", 60);
+        ReflectionTestUtils.setField(properties, "ipBurst", 3);
+        ReflectionTestUtils.setField(properties, "emailPerMinute", 10);
+        ReflectionTestUtils.setField(properties, "emailBurst", 2);
+        ReflectionTestUtils.setField(properties, "maxEntries", 100);
+        filter = new LoginThrottleWebFilter(properties, new JsonFactory(), meterRegistry, () -> 0L);
+    }
+
+    @Test
+    void filter_ShouldRejectEmail_AfterBurst_InAnyCasing_AndForwardAllowedBodies() {
+        String body = "{\"email\":\"john.doe@example.com\",\"password\":\"password123\"}";
+
+        StepVerifier.create(filter.filter(login("10.0.0.1", body), chain)).verifyComplete();
+        StepVerifier.create(filter.filter(login("10.0.0.2", body.replace("john", "JOHN")), chain)).verifyComplete();
+        MockServerWebExchange rejected = login("10.0.0.3", body);
+        StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("6", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(List.of(body, body.replace("john", "JOHN")), forwardedBodies);
+        assertEquals(1.0, meterRegistry.get("login.throttle.decisions").tags("key", "email", "result", "rejected").counter().count());
+    }
+
+    @Test
+    void filter_ShouldRejectAddress_AfterBurst_WithoutReadingBody() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(filter.filter(login("10.0.0.1", "{\"email\":\"user" + i + "@example.com\"}"), chain))
+                    .verifyComplete();
+        }
+        MockServerWebExchange rejected = login("10.0.0.1", "{\"email\":\"user9@example.com\"}");
+
+        StepVerifier.create(filter.filter(rejected, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals(3, forwardedBodies.size());
+        assertEquals(0.0, meterRegistry.get("login.throttle.decisions").tags("key", "email", "result", "rejected").counter().count());
+    }
+
+    @Test
+    void filter_ShouldLimitIpv6PerPrefix_WithoutCollidingWithOtherPrefixes() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(filter.filter(login("2001:db8::" + (i + 1), "{}"), chain)).verifyComplete();
+        }
+        MockServerWebExchange samePrefix = login("2001:db8::ffff", "{}");
+        MockServerWebExchange otherPrefix = login("2001:db9::1", "{}");
+        MockServerWebExchange ipv4 = login("32.1.13.184", "{}");
+
+        StepVerifier.create(filter.filter(samePrefix, chain)).verifyComplete();
+        StepVerifier.create(filter.filter(otherPrefix, chain)).verifyComplete();
+        StepVerifier.create(filter.filter(ipv4, chain)).verifyComplete();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, samePrefix.getResponse().getStatusCode());
+        assertNull(otherPrefix.getResponse().getStatusCode());
+        assertNull(ipv4.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_ShouldNotThrottleOtherEndpoints() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/register")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 5000))
+                .body("{}"));
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+        }
+
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange login(String address, String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login")
+                .remoteAddress(new InetSocketAddress(address, 5000))
+                .body(body));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.userservice.security;
+
+import com.example.userservice.config.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingAuthenticationManagerTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+    private static final String PASSWORD = "password123";
+
+    private final ReactiveUserDetailsService userDetailsService = mock(ReactiveUserDetailsService.class);
+    private final ReactiveUserDetailsPasswordService userDetailsPasswordService = mock(ReactiveUserDetailsPasswordService.class);
+    private final PasswordEncoder passwordEncoder = new SecurityConfig().passwordEncoder("bcrypt", 5);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private PasswordHashingAuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingExecutor = new PasswordHashingExecutor(passwordEncoder, new SimpleMeterRegistry(), 1, 4);
+        authenticationManager = new PasswordHashingAuthenticationManager(userDetailsService, userDetailsPasswordService,
+                passwordHashingExecutor);
+        when(userDetailsPasswordService.updatePassword(any(), anyString()))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void authenticate_ShouldUpgradeHash_WhenStoredWithLowerStrengthAndNoPrefix() {
+        UserDetails user = user(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        when(userDetailsService.findByUsername(EMAIL)).thenReturn(Mono.just(user));
+
+        StepVerifier.create(authenticationManager.authenticate(login(PASSWORD)))
+                .expectNextMatches(authentication -> authentication.isAuthenticated())
+                .verifyComplete();
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userDetailsPasswordService, timeout(5_000)).updatePassword(eq(user), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordEncoder.matches(PASSWORD, newHash.getValue()));
+    }
+
+    @Test
+    void authenticate_ShouldKeepHash_WhenAlreadyCurrent() {
+        when(userDetailsService.findByUsername(EMAIL)).thenReturn(Mono.just(user(passwordEncoder.encode(PASSWORD))));
+
+        StepVerifier.create(authenticationManager.authenticate(login(PASSWORD)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(userDetailsPasswordService, after(200).never()).updatePassword(any(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldFailWithoutUpgrade_WhenPasswordIsWrong() {
+        when(userDetailsService.findByUsername(EMAIL))
+                .thenReturn(Mono.just(user(new BCryptPasswordEncoder(4).encode(PASSWORD))));
+
+        StepVerifier.create(authenticationManager.authenticate(login("wrong-password")))
+                .expectError(BadCredentialsException.class)
+                .verify();
+
+        verify(userDetailsPasswordService, never()).updatePassword(any(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldSkipUpgrade_WhenOtherHashingCallsAreQueued() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingExecutor busyExecutor = new PasswordHashingExecutor(new BlockingPasswordEncoder(started, release),
+                meterRegistry, 1, 2);
+        PasswordHashingAuthenticationManager busyManager = new PasswordHashingAuthenticationManager(userDetailsService,
+                userDetailsPasswordService, busyExecutor);
+        when(userDetailsService.findByUsername(EMAIL))
+                .thenReturn(Mono.just(user(new BCryptPasswordEncoder(4).encode(PASSWORD))));
+        try {
+            busyExecutor.encode("blocker").subscribe();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // The worker runs the login's check and its upgrade decision while another encode is queued.
+            StepVerifier.create(busyManager.authenticate(login(PASSWORD)))
+                    .then(() -> {
+                        busyExecutor.encode("queued").subscribe();
+                        release.countDown();
+                    })
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            verify(userDetailsPasswordService, after(200).never()).updatePassword(any(), anyString());
+            assertEquals(0.0, meterRegistry.get("password.hashing.rejected").counter().count());
+        } finally {
+            busyExecutor.shutdown();
+        }
+    }
+
+    private static UserDetails user(String hash) {
+        return new User(EMAIL, hash, Collections.emptyList());
+    }
+
+    private static UsernamePasswordAuthenticationToken login(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, password);
+    }
+
+    /**
+     * Holds the first encode on the worker until released, so later calls queue behind it.
+     */
+    private final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (started.getCount() > 0) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return passwordEncoder.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return passwordEncoder.upgradeEncoding(encodedPassword);
+        }
+    }
+}
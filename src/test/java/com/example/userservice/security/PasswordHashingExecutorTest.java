@@ -0,0 +1,90 @@
+package com.example.userservice.security;
+
+import com.example.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void encode_ShouldRunOnHashingThread_AndProduceMatchingHash() {
+        passwordHashingExecutor = new PasswordHashingExecutor(new BCryptPasswordEncoder(4), meterRegistry, 1, 4);
+
+        String hash = passwordHashingExecutor.encode("password123").block();
+
+        StepVerifier.create(passwordHashingExecutor.matches("password123", hash))
+                .expectNext(true)
+                .verifyComplete();
+        assertEquals(2, meterRegistry.get("password.hashing.duration").timers().stream()
+                .mapToLong(timer -> timer.count()).sum());
+    }
+
+    @Test
+    void encode_ShouldFailFast_WhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        passwordHashingExecutor = new PasswordHashingExecutor(new BlockingPasswordEncoder(started, release), meterRegistry, 1, 1);
+
+        passwordHashingExecutor.encode("first").subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        passwordHashingExecutor.encode("queued").subscribe();
+
+        StepVerifier.create(passwordHashingExecutor.encode("rejected"))
+                .expectError(ServiceUnavailableException.class)
+                .verify();
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+    }
+
+    @Test
+    void encode_ShouldSignalError_WhenEncoderThrowsAnError() {
+        PasswordEncoder failingEncoder = mock(PasswordEncoder.class);
+        when(failingEncoder.encode("password123")).thenThrow(new StackOverflowError());
+        passwordHashingExecutor = new PasswordHashingExecutor(failingEncoder, meterRegistry, 1, 4);
+
+        StepVerifier.create(passwordHashingExecutor.encode("password123"))
+                .expectError(StackOverflowError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private record BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -1,27 +1,53 @@
 package com.example.userservice.service.impl;
 
+import com.example.userservice.cache.EmailExistenceFilter;
+import com.example.userservice.cache.UserCache;
+import com.example.userservice.cache.UserLookupCoalescer;
+import com.example.userservice.commons.CursorCodec;
+import com.example.userservice.config.UserApiProperties;
+import com.example.userservice.dto.DeleteUsersResponseDTO;
+import com.example.userservice.dto.UserLookupResultDTO;
+import com.example.userservice.dto.UserPageDTO;
 import com.example.userservice.dto.UserRequestDTO;
 import com.example.userservice.dto.UserResponseDTO;
+import com.example.userservice.entity.UserCredentials;
 import com.example.userservice.entity.UserEntity;
 import com.example.userservice.exception.BadRequestException;
 import com.example.userservice.exception.DataAlreadyExistsException;
 import com.example.userservice.exception.UserNotFoundException;
 import com.example.userservice.mapper.UserMapper;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.PasswordHashingExecutor;
 import com.example.userservice.validation.UserValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Set;
+
 import static com.example.userservice.commons.Constants.EMAIL_ALREADY_EXISTS;
+import static com.example.userservice.commons.Constants.EMAIL_IS_NOT_VALID;
+import static com.example.userservice.commons.Constants.INVALID_CURSOR;
+import static com.example.userservice.commons.Constants.NO_FIELDS_TO_UPDATE;
+import static com.example.userservice.commons.Constants.TOO_MANY_IDS;
 import static com.example.userservice.commons.Constants.USER_NOT_FOUND_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class UserServiceImplTest {
@@ -35,6 +61,21 @@ class UserServiceImplTest {
     @Mock
     private UserValidator userValidator;
 
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private UserCache userCache;
+
+    @Spy
+    private UserLookupCoalescer userLookupCoalescer = new UserLookupCoalescer(new SimpleMeterRegistry());
+
+    @Mock
+    private EmailExistenceFilter emailExistenceFilter;
+
+    @Mock
+    private UserApiProperties userApiProperties;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -45,6 +86,7 @@ class UserServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(emailExistenceFilter.mightContain(any())).thenReturn(true);
 
         userEntity = new UserEntity();
         userEntity.setId(1L);
@@ -58,9 +100,9 @@ class UserServiceImplTest {
 
     @Test
     void createUser_ShouldReturnUserResponseDTO_WhenEmailDoesNotExist() {
-        when(userRepository.existsByEmail(userRequestDTO.getEmail())).thenReturn(Mono.just(false));
-        when(userMapper.toEntity(userRequestDTO)).thenReturn(userEntity);
-        when(userRepository.save(userEntity)).thenReturn(Mono.just(userEntity));
+        when(passwordHashingExecutor.encode(userRequestDTO.getPassword())).thenReturn(Mono.just("encodedPassword"));
+        when(userMapper.toEntity(userRequestDTO, "encodedPassword")).thenReturn(userEntity);
+        when(userRepository.insertIfAbsent(userEntity)).thenReturn(Mono.just(userEntity));
         when(userMapper.toResponseDto(userEntity)).thenReturn(userResponseDTO);
 
         Errors errors = new BeanPropertyBindingResult(userRequestDTO, "userRequestDTO");
@@ -78,7 +120,9 @@ class UserServiceImplTest {
 
     @Test
     void createUser_ShouldReturnError_WhenEmailAlreadyExists() {
-        when(userRepository.existsByEmail(userRequestDTO.getEmail())).thenReturn(Mono.just(true));
+        when(passwordHashingExecutor.encode(userRequestDTO.getPassword())).thenReturn(Mono.just("encodedPassword"));
+        when(userMapper.toEntity(userRequestDTO, "encodedPassword")).thenReturn(userEntity);
+        when(userRepository.insertIfAbsent(userEntity)).thenReturn(Mono.empty());
 
         Mono<UserResponseDTO> result = userService.createUser(userRequestDTO);
 
@@ -88,21 +132,86 @@ class UserServiceImplTest {
                 .verify();
     }
 
+    @Test
+    void createUser_ShouldNotHashOrQuery_WhenRequestIsInvalid() {
+        when(userValidator.validate(userRequestDTO))
+                .thenReturn(List.of(new FieldError("userRequestDTO", "email", EMAIL_IS_NOT_VALID)));
+
+        Mono<UserResponseDTO> result = userService.createUser(userRequestDTO);
+
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof BadRequestException &&
+                        throwable.getMessage().contains(EMAIL_IS_NOT_VALID))
+                .verify();
+        verify(passwordHashingExecutor, never()).encode(any());
+        verify(userRepository, never()).insertIfAbsent(any());
+    }
+
     @Test
     void getUserById_ShouldReturnUserResponseDTO_WhenUserExists() {
-        when(userRepository.findById(1L)).thenReturn(Mono.just(userEntity));
-        when(userMapper.toResponseDto(userEntity)).thenReturn(userResponseDTO);
+        when(userRepository.findSummaryById(1L)).thenReturn(Mono.just(userResponseDTO));
+
+        Mono<UserResponseDTO> result = userService.getUserById(1L);
+
+        StepVerifier.create(result)
+                .expectNext(userResponseDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void getUserById_ShouldReturnCachedUser_WithoutQueryingRepository() {
+        when(userCache.getById(1L)).thenReturn(userResponseDTO);
 
         Mono<UserResponseDTO> result = userService.getUserById(1L);
 
+        StepVerifier.create(result)
+                .expectNext(userResponseDTO)
+                .verifyComplete();
+        verify(userRepository, never()).findSummaryById(anyLong());
+    }
+
+    @Test
+    void getUserByEmail_ShouldLookUpNormalizedEmail_WhenCasingDiffers() {
+        when(userRepository.findSummaryByEmail("john.doe@example.com")).thenReturn(Mono.just(userResponseDTO));
+
+        Mono<UserResponseDTO> result = userService.getUserByEmail(" John.Doe@Example.COM");
+
         StepVerifier.create(result)
                 .expectNext(userResponseDTO)
                 .verifyComplete();
     }
 
+    @Test
+    void getCredentialsByEmail_ShouldReturnProjection() {
+        UserCredentials credentials = new UserCredentials("john.doe@example.com", "hash");
+        when(userRepository.findCredentialsByEmail("john.doe@example.com")).thenReturn(Mono.just(credentials));
+
+        StepVerifier.create(userService.getCredentialsByEmail("john.doe@example.com"))
+                .expectNext(credentials)
+                .verifyComplete();
+        verify(userCache, never()).getByEmail(any());
+    }
+
+    @Test
+    void getCredentialsByEmail_ShouldNotQuery_WhenFilterRulesOutEmail() {
+        when(emailExistenceFilter.mightContain("unknown@example.com")).thenReturn(false);
+
+        StepVerifier.create(userService.getCredentialsByEmail("unknown@example.com"))
+                .verifyComplete();
+        verify(userRepository, never()).findCredentialsByEmail(any());
+    }
+
+    @Test
+    void getCredentialsByEmail_ShouldCompleteEmpty_WhenUserDoesNotExist() {
+        when(userRepository.findCredentialsByEmail("unknown@example.com")).thenReturn(Mono.empty());
+
+        StepVerifier.create(userService.getCredentialsByEmail("unknown@example.com"))
+                .verifyComplete();
+    }
+
     @Test
     void getUserById_ShouldReturnError_WhenUserDoesNotExist() {
-        when(userRepository.findById(1L)).thenReturn(Mono.empty());
+        when(userRepository.findSummaryById(1L)).thenReturn(Mono.empty());
 
         Mono<UserResponseDTO> result = userService.getUserById(1L);
 
@@ -112,10 +221,27 @@ class UserServiceImplTest {
                 .verify();
     }
 
+    @Test
+    void getUsersByIds_ShouldReturnResultsInRequestOrder_WithNotFoundMarkers() {
+        UserResponseDTO secondResponse = new UserResponseDTO(2L, "Jane Doe", "jane.doe@example.com");
+        when(userApiProperties.getMaxBatchIds()).thenReturn(10);
+        when(userApiProperties.getBatchChunkSize()).thenReturn(2);
+        when(userCache.getById(2L)).thenReturn(secondResponse);
+        when(userRepository.findSummariesByIds(Set.of(1L))).thenReturn(Flux.just(userResponseDTO));
+        when(userRepository.findSummariesByIds(Set.of(3L))).thenReturn(Flux.empty());
+
+        Flux<UserLookupResultDTO> result = userService.getUsersByIds(List.of(2L, 1L, 3L));
+
+        StepVerifier.create(result)
+                .expectNext(new UserLookupResultDTO(2L, true, secondResponse))
+                .expectNext(new UserLookupResultDTO(1L, true, userResponseDTO))
+                .expectNext(new UserLookupResultDTO(3L, false, null))
+                .verifyComplete();
+    }
+
     @Test
     void getAllUsers_ShouldReturnUserResponseDTOs() {
-        when(userRepository.findAll()).thenReturn(Flux.just(userEntity));
-        when(userMapper.toResponseDto(userEntity)).thenReturn(userResponseDTO);
+        when(userRepository.findAllSummaries()).thenReturn(Flux.just(userResponseDTO));
 
         Flux<UserResponseDTO> result = userService.getAllUsers();
 
@@ -125,27 +251,66 @@ class UserServiceImplTest {
     }
 
     @Test
-    void updateUser_ShouldReturnUpdatedUserResponseDTO_WhenUserExists() {
-        when(userRepository.findById(1L)).thenReturn(Mono.just(userEntity));
-        when(userRepository.save(userEntity)).thenReturn(Mono.just(userEntity));
-        when(userMapper.toResponseDto(userEntity)).thenReturn(userResponseDTO);
+    void getUserPage_ShouldReturnNextCursor_WhenMoreUsersExist() {
+        UserResponseDTO secondUser = new UserResponseDTO(2L, "Jane Doe", "jane.doe@example.com");
+        when(userApiProperties.getMaxPageLimit()).thenReturn(100);
+        when(userRepository.findSummaryPageAfter(0L, 2)).thenReturn(Flux.just(userResponseDTO, secondUser));
 
-        Errors errors = new BeanPropertyBindingResult(userRequestDTO, "userRequestDTO");
-        userValidator.validate(userRequestDTO, errors);
-        if (errors.hasErrors()) {
-            throw new BadRequestException(errors.getFieldErrors());
-        }
+        Mono<UserPageDTO> result = userService.getUserPage(null, 1);
+
+        StepVerifier.create(result)
+                .assertNext(page -> {
+                    assertEquals(1, page.getUsers().size());
+                    assertEquals(1L, CursorCodec.decode(page.getNextCursor()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getUserPage_ShouldOmitNextCursor_OnLastPage() {
+        when(userApiProperties.getMaxPageLimit()).thenReturn(100);
+        when(userRepository.findSummaryPageAfter(1L, 11)).thenReturn(Flux.empty());
+
+        Mono<UserPageDTO> result = userService.getUserPage(CursorCodec.encode(1L), 10);
+
+        StepVerifier.create(result)
+                .assertNext(page -> {
+                    assertEquals(0, page.getUsers().size());
+                    assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getUserPage_ShouldReturnError_WhenCursorIsInvalid() {
+        when(userApiProperties.getMaxPageLimit()).thenReturn(100);
+
+        Mono<UserPageDTO> result = userService.getUserPage("not-a-cursor", 10);
+
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof BadRequestException &&
+                        throwable.getMessage().equals(INVALID_CURSOR))
+                .verify();
+    }
+
+    @Test
+    void updateUser_ShouldReturnUpdatedUserResponseDTO_WhenUserExists() {
+        UserEntity changes = new UserEntity(1L, "John Doe", "john.doe@example.com", "encodedPassword");
+        when(passwordHashingExecutor.encode(userRequestDTO.getPassword())).thenReturn(Mono.just("encodedPassword"));
+        when(userRepository.updateNonNullFields(changes)).thenReturn(Mono.just(userResponseDTO));
 
         Mono<UserResponseDTO> result = userService.updateUser(1L, userRequestDTO);
 
         StepVerifier.create(result)
                 .expectNext(userResponseDTO)
                 .verifyComplete();
+        verify(userCache).invalidate(1L);
     }
 
     @Test
     void updateUser_ShouldReturnError_WhenUserDoesNotExist() {
-        when(userRepository.findById(1L)).thenReturn(Mono.empty());
+        when(passwordHashingExecutor.encode(userRequestDTO.getPassword())).thenReturn(Mono.just("encodedPassword"));
+        when(userRepository.updateNonNullFields(any())).thenReturn(Mono.empty());
 
         Mono<UserResponseDTO> result = userService.updateUser(1L, userRequestDTO);
 
@@ -155,20 +320,44 @@ class UserServiceImplTest {
                 .verify();
     }
 
+    @Test
+    void patchUser_ShouldNotHashPassword_WhenPasswordIsNotSupplied() {
+        UserRequestDTO patch = new UserRequestDTO("Johnny Doe", null, null);
+        UserEntity changes = new UserEntity(1L, "Johnny Doe", null, null);
+        when(userRepository.updateNonNullFields(changes)).thenReturn(Mono.just(userResponseDTO));
+
+        Mono<UserResponseDTO> result = userService.patchUser(1L, patch);
+
+        StepVerifier.create(result)
+                .expectNext(userResponseDTO)
+                .verifyComplete();
+        verify(passwordHashingExecutor, never()).encode(any());
+    }
+
+    @Test
+    void patchUser_ShouldReturnError_WhenNoFieldIsSupplied() {
+        Mono<UserResponseDTO> result = userService.patchUser(1L, new UserRequestDTO());
+
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof BadRequestException &&
+                        throwable.getMessage().equals(NO_FIELDS_TO_UPDATE))
+                .verify();
+    }
+
     @Test
     void deleteUser_ShouldDeleteUser_WhenUserExists() {
-        when(userRepository.existsById(1L)).thenReturn(Mono.just(true));
-        when(userRepository.deleteById(1L)).thenReturn(Mono.empty());
+        when(userRepository.deleteUserById(1L)).thenReturn(Mono.just(1L));
 
         Mono<Void> result = userService.deleteUser(1L);
 
         StepVerifier.create(result)
                 .verifyComplete();
+        verify(userCache).invalidate(1L);
     }
 
     @Test
     void deleteUser_ShouldReturnError_WhenUserDoesNotExist() {
-        when(userRepository.existsById(1L)).thenReturn(Mono.just(false));
+        when(userRepository.deleteUserById(1L)).thenReturn(Mono.just(0L));
 
         Mono<Void> result = userService.deleteUser(1L);
 
@@ -178,4 +367,31 @@ class UserServiceImplTest {
                 .verify();
     }
 
-}
\ No newline at end of file
+    @Test
+    void deleteUsers_ShouldDeleteDistinctIdsInOneStatement() {
+        when(userApiProperties.getMaxBatchIds()).thenReturn(10);
+        when(userRepository.deleteUsersByIds(Set.of(1L, 2L))).thenReturn(Mono.just(2L));
+
+        Mono<DeleteUsersResponseDTO> result = userService.deleteUsers(List.of(1L, 2L, 1L));
+
+        StepVerifier.create(result)
+                .expectNext(new DeleteUsersResponseDTO(2L))
+                .verifyComplete();
+        verify(userCache).invalidate(1L);
+        verify(userCache).invalidate(2L);
+    }
+
+    @Test
+    void deleteUsers_ShouldReturnError_WhenTooManyIdsAreProvided() {
+        when(userApiProperties.getMaxBatchIds()).thenReturn(1);
+
+        Mono<DeleteUsersResponseDTO> result = userService.deleteUsers(List.of(1L, 2L));
+
+        StepVerifier.create(result)
+                .expectErrorMatches(throwable -> throwable instanceof BadRequestException &&
+                        throwable.getMessage().equals(String.format(TOO_MANY_IDS, 1)))
+                .verify();
+        verify(userRepository, never()).deleteUsersByIds(any());
+    }
+
+}
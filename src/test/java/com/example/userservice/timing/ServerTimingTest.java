@@ -0,0 +1,71 @@
+package com.example.userservice.timing;
+
+import com.example.userservice.cache.SingleFlight;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerTimingTest {
+
+    @Test
+    void time_ShouldRecordPhases_WhenTimingIsInContext() {
+        ServerTiming timing = new ServerTiming();
+
+        StepVerifier.create(ServerTiming.time(ServerTiming.Phase.DB, Mono.just(1))
+                        .then(ServerTiming.time(ServerTiming.Phase.HASH, Flux.just(1, 2).then()))
+                        .contextWrite(Context.of(ServerTiming.class, timing)))
+                .verifyComplete();
+
+        String header = timing.toHeaderValue();
+        assertTrue(header.matches("db;dur=\\d+\\.\\d{3}, hash;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+    }
+
+    @Test
+    void time_ShouldRecordBeforeResultIsPassedOn() {
+        ServerTiming timing = new ServerTiming();
+
+        StepVerifier.create(ServerTiming.time(ServerTiming.Phase.SIGN, Mono.just("token"))
+                        .map(token -> timing.toHeaderValue())
+                        .contextWrite(Context.of(ServerTiming.class, timing)))
+                .assertNext(header -> assertTrue(header.startsWith("sign;dur="), header))
+                .verifyComplete();
+    }
+
+    @Test
+    void time_ShouldNotCountDbTwice_WhenLoadIsShared() {
+        ServerTiming timing = new ServerTiming();
+        SingleFlight<Long, Long> singleFlight = new SingleFlight<>();
+
+        StepVerifier.create(ServerTiming.time(ServerTiming.Phase.DB, singleFlight.execute(1L,
+                                () -> ServerTiming.untimed(ServerTiming.time(ServerTiming.Phase.DB,
+                                        Mono.delay(Duration.ofMillis(50))))))
+                        .contextWrite(Context.of(ServerTiming.class, timing)))
+                .expectNext(0L)
+                .verifyComplete();
+
+        Matcher header = Pattern.compile("db;dur=([\\d.]+), total;dur=([\\d.]+)").matcher(timing.toHeaderValue());
+        assertTrue(header.matches(), header::toString);
+        assertTrue(Double.parseDouble(header.group(1)) <= Double.parseDouble(header.group(2)), timing.toHeaderValue());
+    }
+
+    @Test
+    void time_ShouldOnlyReportTotal_WhenNothingWasTimed() {
+        ServerTiming timing = new ServerTiming();
+
+        StepVerifier.create(ServerTiming.time(ServerTiming.Phase.DB, Mono.just(1)))
+                .expectNext(1)
+                .verifyComplete();
+
+        assertTrue(timing.toHeaderValue().startsWith("total;dur="));
+        assertEquals(-1, timing.toLogFields().indexOf("db="));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.userservice.validation;
+
+import com.example.userservice.dto.UserRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.FieldError;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static com.example.userservice.commons.Constants.EMAIL_IS_NOT_VALID;
+import static com.example.userservice.commons.Constants.NAME_MAX_LENGTH;
+import static com.example.userservice.commons.Constants.PASSWORD_IS_REQUIRED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UserValidatorTest {
+
+    private static final Pattern EMAIL_REGEX = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+
+    private final UserValidator userValidator = new UserValidator(3, 10, 255, 8);
+
+    @Test
+    void validate_ShouldReturnSharedEmptyList_WhenRequestIsValid() {
+        List<FieldError> errors = userValidator.validate(new UserRequestDTO("John Doe", "john.doe@example.com", "password123"));
+
+        assertSame(List.of(), errors);
+    }
+
+    @Test
+    void validate_ShouldReportFirstFailedRulePerField_WithConfiguredLimits() {
+        List<FieldError> errors = userValidator.validate(new UserRequestDTO("John Doe Smith", "john.doe@", " "));
+
+        assertEquals(List.of("name", "email", "password"), errors.stream().map(FieldError::getField).toList());
+        assertEquals(String.format(NAME_MAX_LENGTH, 10), errors.get(0).getDefaultMessage());
+        assertEquals("user.name.long", errors.get(0).getCode());
+        assertEquals(EMAIL_IS_NOT_VALID, errors.get(1).getDefaultMessage());
+        assertEquals(PASSWORD_IS_REQUIRED, errors.get(2).getDefaultMessage());
+    }
+
+    @Test
+    void validateForPatch_ShouldOnlyCheckSuppliedFields() {
+        assertSame(List.of(), userValidator.validateForPatch(new UserRequestDTO(null, "jane@example.org", null)));
+        assertEquals("email", userValidator.validateForPatch(new UserRequestDTO(null, "jane@example", null)).get(0).getField());
+    }
+
+    @Test
+    void isEmailFormat_ShouldAgreeWithRegex() {
+        List<String> emails = List.of("john.doe@example.com", "a@b.co", "a_b-c.d@sub-1.example.info", ".@x.io",
+                "john@example.c", "john@example.abcde", "john@example", "john@@example.com", "@example.com",
+                "john@.example.com", "john@example..com", "john@example.com.", "john doe@example.com",
+                "jöhn@example.com", "john@exa_mple.co-m", "john@example.com\n", "john@-.--");
+
+        for (String email : emails) {
+            assertEquals(EMAIL_REGEX.matcher(email).matches(), UserValidator.isEmailFormat(email), email);
+        }
+    }
+}